@@ -1,7 +1,11 @@
 package com.wohngeld.config;
 
 import com.wohngeld.model.ApiResponse;
+import com.wohngeld.service.AdmissionRejectedException;
+import com.wohngeld.service.BatchTooLargeException;
+import com.wohngeld.service.IdempotencyKeyConflictException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -40,6 +44,28 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Datei nicht gefunden: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(IdempotencyKeyConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKeyConflict(IdempotencyKeyConflictException ex) {
+        log.warn("Idempotency-Key-Konflikt: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBatchTooLarge(BatchTooLargeException ex) {
+        log.warn("Stapel abgelehnt: {}", ex.getMessage());
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAdmissionRejected(AdmissionRejectedException ex) {
+        log.warn("Anfrage abgelehnt: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(IOException.class)
     public ResponseEntity<ApiResponse<Void>> handleIOException(IOException ex) {
         log.error("IO-Fehler: {}", ex.getMessage());
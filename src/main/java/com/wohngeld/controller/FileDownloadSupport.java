@@ -0,0 +1,265 @@
+package com.wohngeld.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Auslieferung gespeicherter Dateien mit starkem ETag (SHA-256 des Inhalts), bedingtem GET
+ * ({@code If-None-Match}, {@code If-Modified-Since}) und einem Byte-Bereich ({@code Range}, {@code If-Range}).
+ *
+ * Der Inhalt wird nicht über den Heap kopiert: Unterstützt der Connector Sendfile (Tomcat NIO),
+ * übernimmt Tomcat die Übertragung per {@code FileChannel.transferTo}; sonst wird der Dateikanal
+ * direkt in den Ausgabestrom übertragen. Ist der Hash schon bekannt (Inhaltsindex der Ablage), wird er
+ * direkt als ETag verwendet; sonst wird die Datei gehasht und der Hash je Datei, Größe und Änderungszeit gemerkt.
+ */
+@Component
+@Slf4j
+public class FileDownloadSupport {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final Map<Path, FileTag> tags;
+
+    public FileDownloadSupport(@Value("${wohngeld.download.etag-cache-entries:10000}") int maxEntries) {
+        this.tags = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, FileTag> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Schreibt die Datei (oder den angefragten Bereich) in die Antwort, bzw. 304/416.
+     * Ist {@code file} {@code null} oder existiert nicht, wird 404 gesendet.
+     *
+     * @param contentHash SHA-256 des Inhalts (hex), falls bekannt; sonst {@code null}
+     */
+    public void send(Path file, String contentHash, String contentType, String contentDisposition,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        FileTag tag = tag(file, contentHash);
+        long length = tag.size();
+
+        response.setHeader(HttpHeaders.ETAG, tag.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, tag.lastModified());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Personal data: browsers may keep a copy but must revalidate it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+
+        if (notModified(request, tag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && rangeApplies(request, tag)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        response.setContentLengthLong(count);
+
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat sends the file itself after the handler returns (sendfile / transferTo)
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(file, start, count, response.getOutputStream());
+    }
+
+    private void transfer(Path file, long start, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * If-None-Match has priority; If-Modified-Since is only evaluated without it (RFC 9110, 13.2.2).
+     */
+    private boolean notModified(HttpServletRequest request, FileTag tag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, tag.etag());
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && tag.lastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * A Range is only honoured while If-Range still matches; otherwise the whole file is sent.
+     */
+    private boolean rangeApplies(HttpServletRequest request, FileTag tag) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(tag.etag());
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && tag.lastModified() / 1000 <= date / 1000;
+    }
+
+    /**
+     * @return {@code [start, end]} für einen einzelnen Bereich, ein leeres Array für ungültige oder nicht
+     * unterstützte Angaben (z.B. {@code bytes=5-3}, mehrere Bereiche, andere Einheit; dann vollständige
+     * Antwort, RFC 9110, 14.2), {@code null} wenn der Bereich hinter dem Dateiende beginnt oder leer ist
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return new long[0];
+                }
+                if (suffix == 0 || length == 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                long requestedEnd = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || requestedEnd < start) {
+                    // Invalid, not unsatisfiable: the Range header is ignored
+                    return new long[0];
+                }
+                if (start >= length) {
+                    return null;
+                }
+                end = Math.min(requestedEnd, length - 1);
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private FileTag tag(Path file, String contentHash) throws IOException {
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (contentHash != null) {
+            return new FileTag("\"" + contentHash + "\"", size, lastModified);
+        }
+        synchronized (tags) {
+            FileTag cached = tags.get(file);
+            if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+                return cached;
+            }
+        }
+
+        FileTag tag = new FileTag("\"" + sha256(file) + "\"", size, lastModified);
+        synchronized (tags) {
+            tags.put(file, tag);
+        }
+        return tag;
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record FileTag(String etag, long size, long lastModified) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.wohngeld.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.wohngeld.dto.WohngeldAntragRequestDTO;
+import com.wohngeld.entity.FillJob;
+import com.wohngeld.entity.FillJobItem;
+import com.wohngeld.model.ApiResponse;
+import com.wohngeld.model.FillJobStats;
+import com.wohngeld.service.FillJobService;
+import com.wohngeld.service.ZipExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v2/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Wohngeld Aufträge", description = "Asynchrone Füll-Aufträge für große Stapel")
+public class FillJobController {
+
+    private static final MediaType ZIP = MediaType.parseMediaType("application/zip");
+
+    private final FillJobService fillJobService;
+    private final ZipExportService zipExportService;
+
+    @PostMapping
+    @Operation(summary = "Auftrag einreichen", description = "Legt einen Füll-Auftrag an und liefert sofort die Auftrags-ID")
+    public ResponseEntity<ApiResponse<FillJob>> submitJob(
+            @RequestBody List<WohngeldAntragRequestDTO> requestDtos,
+            @RequestParam(required = false) String templatePath
+    ) {
+        try {
+            FillJob job = fillJobService.submit(requestDtos, templatePath);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Auftrag angenommen: " + job.getId(), job));
+        } catch (JsonProcessingException e) {
+            log.error("Fehler beim Anlegen des Auftrags: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Fehler: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Auftragsstatus", description = "Status und Fortschritt eines Auftrags")
+    public ResponseEntity<ApiResponse<FillJob>> getJob(@PathVariable String jobId) {
+        return fillJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(ApiResponse.success(
+                        String.format("%d von %d verarbeitet", job.getSucceeded() + job.getFailed(), job.getTotal()),
+                        job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Auftrag nicht gefunden: " + jobId)));
+    }
+
+    @GetMapping("/{jobId}/items")
+    @Operation(summary = "Auftragsergebnisse", description = "Ergebnis pro Eintrag; fertige PDFs über /api/download/{filename}")
+    public ResponseEntity<ApiResponse<List<FillJobItem>>> getJobItems(@PathVariable String jobId) {
+        if (fillJobService.getJob(jobId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Auftrag nicht gefunden: " + jobId));
+        }
+        return ResponseEntity.ok(ApiResponse.success(fillJobService.getItems(jobId)));
+    }
+
+    @GetMapping("/{jobId}/download")
+    @Operation(summary = "Auftragsergebnisse als ZIP", description = "Streamt alle erfolgreich erzeugten PDFs eines Auftrags als ZIP")
+    public ResponseEntity<StreamingResponseBody> downloadJobZip(@PathVariable String jobId) {
+        if (fillJobService.getJob(jobId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        List<String> filenames = fillJobService.getItems(jobId).stream()
+                .filter(item -> item.getStatus() == FillJobItem.Status.DONE && item.getFilename() != null)
+                .map(FillJobItem::getFilename)
+                .toList();
+
+        StreamingResponseBody body = out -> zipExportService.writeZip(filenames, out);
+        return ResponseEntity.ok()
+                .contentType(ZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"auftrag_" + jobId + ".zip\"")
+                .body(body);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Auftrags-Statistik", description = "Warteschlangentiefe und Auslastung der PDF-Worker")
+    public ResponseEntity<ApiResponse<FillJobStats>> getStats() {
+        return ResponseEntity.ok(ApiResponse.success(fillJobService.getStats()));
+    }
+}
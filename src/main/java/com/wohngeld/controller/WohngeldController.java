@@ -1,27 +1,43 @@
 package com.wohngeld.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import com.wohngeld.dto.*;
 import com.wohngeld.mapper.WohngeldAntragMapper;
 import com.wohngeld.model.*;
+import com.wohngeld.service.AdmissionRejectedException;
+import com.wohngeld.service.BatchFillService;
+import com.wohngeld.service.BundleTooLargeException;
+import com.wohngeld.service.IdempotencyKeyConflictException;
 import com.wohngeld.service.PdfFieldAnalyzer;
 import com.wohngeld.service.PdfService;
+import com.wohngeld.service.PdfStorageService;
+import com.wohngeld.service.PrintBundleService;
+import com.wohngeld.service.SampleDataFactory;
+import com.wohngeld.service.TemplateAnalysisCache;
+import com.wohngeld.service.TemplateCache;
+import com.wohngeld.service.ZipExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,8 +50,14 @@ import java.util.Map;
 public class WohngeldController {
 
     private final PdfService pdfService;
-    private final PdfFieldAnalyzer pdfFieldAnalyzer;
+    private final PdfStorageService storageService;
+    private final BatchFillService batchFillService;
+    private final ZipExportService zipExportService;
+    private final PrintBundleService printBundleService;
     private final WohngeldAntragMapper antragMapper;
+    private final SampleDataFactory sampleDataFactory;
+    private final TemplateCache templateCache;
+    private final FileDownloadSupport fileDownloadSupport;
     private final ObjectMapper objectMapper;
 
     @GetMapping("/")
@@ -76,14 +98,22 @@ public class WohngeldController {
     @GetMapping("/fields")
     @Operation(summary = "Formularfelder", description = "Listet alle Formularfelder der PDF auf")
     public ResponseEntity<ApiResponse<List<String>>> getFormFields(
-            @RequestParam(required = false) String templatePath
+            @RequestParam(required = false) String templatePath,
+            WebRequest webRequest
     ) {
         try {
-            List<String> fields = pdfService.getFormFields(templatePath);
-            return ResponseEntity.ok(ApiResponse.success(
-                    "Gefundene Felder: " + fields.size(),
-                    fields
-            ));
+            TemplateAnalysisCache.Analysis analysis = pdfService.analyzeTemplate(templatePath);
+            if (webRequest.checkNotModified(analysis.etag())) {
+                return null;
+            }
+            List<String> fields = analysis.fields();
+            return ResponseEntity.ok()
+                    .eTag(analysis.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(ApiResponse.success(
+                            "Gefundene Felder: " + fields.size(),
+                            fields
+                    ));
         } catch (IOException e) {
             log.error("Fehler beim Lesen der Formularfelder: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -94,11 +124,16 @@ public class WohngeldController {
     @GetMapping("/analyze")
     @Operation(summary = "PDF-Felder analysieren", description = "Analysiert die PDF-Felder und zeigt Kategorisierung und empfohlenes Mapping")
     public ResponseEntity<ApiResponse<Map<String, Object>>> analyzePdf(
-            @RequestParam(required = false) String templatePath
+            @RequestParam(required = false) String templatePath,
+            WebRequest webRequest
     ) {
         try {
-            String path = templatePath != null ? templatePath : pdfService.getDefaultTemplatePath();
-            PdfFieldAnalyzer.AnalysisResult analysis = pdfFieldAnalyzer.analyzePdf(path);
+            TemplateAnalysisCache.Analysis cached = pdfService.analyzeTemplate(templatePath);
+            // Unchanged template: the client's copy is still current, nothing is serialized
+            if (webRequest.checkNotModified(cached.etag())) {
+                return null;
+            }
+            PdfFieldAnalyzer.AnalysisResult analysis = cached.result();
 
             Map<String, Object> result = new HashMap<>();
             result.put("totalFields", analysis.getAllFields().size());
@@ -114,12 +149,15 @@ public class WohngeldController {
                                     .toList()),
                             HashMap::putAll));
             result.put("recommendedMapping", analysis.getRecommendedMapping());
-            result.put("report", pdfFieldAnalyzer.formatAnalysisReport(analysis));
+            result.put("report", cached.report());
 
-            return ResponseEntity.ok(ApiResponse.success(
-                    "PDF analysiert: " + analysis.getAllFields().size() + " Felder gefunden",
-                    result
-            ));
+            return ResponseEntity.ok()
+                    .eTag(cached.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(ApiResponse.success(
+                            "PDF analysiert: " + analysis.getAllFields().size() + " Felder gefunden",
+                            result
+                    ));
         } catch (IOException e) {
             log.error("Fehler bei der PDF-Analyse: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -131,10 +169,11 @@ public class WohngeldController {
     @Operation(summary = "PDF ausfüllen", description = "Füllt die PDF-Vorlage mit den Antragsdaten aus")
     public ResponseEntity<ApiResponse<PdfResult>> fillPdf(
             @Valid @RequestBody WohngeldAntragRequest request,
-            @RequestParam(required = false) String templatePath
+            @RequestParam(required = false) String templatePath,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
         try {
-            PdfResult result = pdfService.fillPdf(request, templatePath);
+            PdfResult result = pdfService.fillPdf(request, templatePath, FillOptions.defaults(), idempotencyKey);
             return ResponseEntity.ok(ApiResponse.success("PDF erfolgreich erstellt", result));
         } catch (IOException e) {
             log.error("Fehler beim PDF-Ausfüllen: {}", e.getMessage());
@@ -178,7 +217,7 @@ public class WohngeldController {
     ) {
         try {
             // PDF ausfüllen
-            PdfResult pdfResult = pdfService.fillPdf(request.getAntragData(), null);
+            PdfResult pdfResult = pdfService.fillPdf(request.getAntragData(), null, FillOptions.defaults(), null);
 
             Map<String, Object> result = new HashMap<>();
             result.put("pdfFilled", true);
@@ -210,26 +249,28 @@ public class WohngeldController {
     }
 
     @GetMapping("/download/{filename}")
-    @Operation(summary = "PDF herunterladen", description = "Lädt eine erstellte PDF herunter")
-    public ResponseEntity<Resource> downloadPdf(@PathVariable String filename) {
-        try {
-            Path filePath = Path.of("output", filename);
-            if (!Files.exists(filePath)) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Resource resource = new FileSystemResource(filePath.toFile());
-
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=\"" + filename + "\"")
-                    .body(resource);
-
-        } catch (Exception e) {
-            log.error("Fehler beim Download: {}", e.getMessage());
-            return ResponseEntity.internalServerError().build();
+    @Operation(summary = "PDF herunterladen",
+            description = "Lädt eine erstellte PDF herunter; mit ETag, If-None-Match/If-Modified-Since und Range")
+    public void downloadPdf(@PathVariable String filename,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        PdfStorageService.StoredContent content = storageService.resolveContent(filename);
+        if (content == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        fileDownloadSupport.send(content.path(), content.contentHash(), MediaType.APPLICATION_PDF_VALUE,
+                "attachment; filename=\"" + filename + "\"", request, response);
+    }
+
+    @PostMapping("/download/zip")
+    @Operation(summary = "PDFs als ZIP herunterladen", description = "Streamt die angegebenen erstellten PDFs als ein ZIP-Archiv")
+    public ResponseEntity<StreamingResponseBody> downloadZip(@RequestBody List<String> filenames) {
+        StreamingResponseBody body = out -> zipExportService.writeZip(filenames, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"wohngeldantraege.zip\"")
+                .body(body);
     }
 
     // ==================== V2 API Endpoints (using DTOs) ====================
@@ -238,12 +279,23 @@ public class WohngeldController {
     @Operation(summary = "PDF ausfüllen (v2)", description = "Füllt die PDF-Vorlage mit den neuen DTO-Antragsdaten aus")
     public ResponseEntity<ApiResponse<PdfResult>> fillPdfV2(
             @Valid @RequestBody WohngeldAntragRequestDTO requestDto,
-            @RequestParam(required = false) String templatePath
+            @RequestParam(required = false) String templatePath,
+            @RequestParam(defaultValue = "EAGER") FillMode mode,
+            @RequestParam(defaultValue = "false") boolean flatten,
+            @RequestParam(defaultValue = "FULL") OutputMode output,
+            @RequestParam(required = false) Compression compression,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
         try {
             // Convert DTO to internal model
             WohngeldAntragRequest request = antragMapper.toInternal(requestDto);
-            PdfResult result = pdfService.fillPdf(request, templatePath);
+            FillOptions options = FillOptions.builder()
+                    .mode(mode)
+                    .flatten(flatten)
+                    .output(output)
+                    .compression(compression)
+                    .build();
+            PdfResult result = pdfService.fillPdf(request, templatePath, options, idempotencyKey);
             return ResponseEntity.ok(ApiResponse.success("PDF erfolgreich erstellt", result));
         } catch (IOException e) {
             log.error("Fehler beim PDF-Ausfüllen (v2): {}", e.getMessage());
@@ -252,98 +304,164 @@ public class WohngeldController {
         }
     }
 
+    @PostMapping(value = "/v2/fill-pdf", produces = MediaType.APPLICATION_PDF_VALUE)
+    @Operation(summary = "PDF ausfüllen und direkt ausliefern (v2)",
+            description = "Schreibt die gefüllte PDF direkt in die Antwort (Accept: application/pdf oder ?inline=true). "
+                    + "Mit persist=true wird zusätzlich im Hintergrund eine Kopie im Ausgabeverzeichnis abgelegt.")
+    public void fillPdfV2Stream(
+            @Valid @RequestBody WohngeldAntragRequestDTO requestDto,
+            @RequestParam(required = false) String templatePath,
+            @RequestParam(defaultValue = "EAGER") FillMode mode,
+            @RequestParam(defaultValue = "false") boolean flatten,
+            @RequestParam(defaultValue = "FULL") OutputMode output,
+            @RequestParam(required = false) Compression compression,
+            @RequestParam(defaultValue = "false") boolean persist,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletResponse response
+    ) throws IOException {
+        try {
+            WohngeldAntragRequest request = antragMapper.toInternal(requestDto);
+            FillOptions options = FillOptions.builder()
+                    .mode(mode)
+                    .flatten(flatten)
+                    .output(output)
+                    .compression(compression)
+                    .build();
+            pdfService.streamPdf(request, templatePath, options, persist, idempotencyKey, result -> {
+                response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"" + result.getFilename() + "\"");
+                response.setHeader("X-Fields-Found", String.valueOf(result.getFieldsFound()));
+                response.setHeader("X-Fields-Filled", String.valueOf(result.getFieldsFilled()));
+                return response.getOutputStream();
+            });
+        } catch (IdempotencyKeyConflictException e) {
+            response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+        } catch (AdmissionRejectedException e) {
+            rejectOverloaded(response, e);
+        } catch (IOException e) {
+            log.error("Fehler beim PDF-Streaming (v2): {}", e.getMessage());
+            if (!response.isCommitted()) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Fehler: " + e.getMessage());
+            }
+        }
+    }
+
+    @PostMapping(value = "/v2/fill-pdf", params = "inline=true")
+    @Operation(summary = "PDF ausfüllen und direkt ausliefern (v2, ?inline=true)",
+            description = "Wie Accept: application/pdf, für Clients, die den Accept-Header nicht setzen können")
+    public void fillPdfV2Inline(
+            @Valid @RequestBody WohngeldAntragRequestDTO requestDto,
+            @RequestParam(required = false) String templatePath,
+            @RequestParam(defaultValue = "EAGER") FillMode mode,
+            @RequestParam(defaultValue = "false") boolean flatten,
+            @RequestParam(defaultValue = "FULL") OutputMode output,
+            @RequestParam(required = false) Compression compression,
+            @RequestParam(defaultValue = "false") boolean persist,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletResponse response
+    ) throws IOException {
+        fillPdfV2Stream(requestDto, templatePath, mode, flatten, output, compression, persist, idempotencyKey,
+                response);
+    }
+
+    @PostMapping(value = "/v2/fill-pdf/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Stapel ausfüllen (v2)", description = "Füllt eine Liste von Anträgen parallel aus und liefert Ergebnisse pro Eintrag")
+    public ResponseEntity<ApiResponse<BatchResult>> fillPdfBatch(
+            @RequestBody List<WohngeldAntragRequestDTO> requestDtos,
+            @RequestParam(required = false) String templatePath
+    ) {
+        batchFillService.checkSize(requestDtos.size());
+        BatchResult result = batchFillService.fillBatch(requestDtos.iterator(), templatePath);
+        return ResponseEntity.ok(ApiResponse.success(batchMessage(result), result));
+    }
+
+    @PostMapping(value = "/v2/fill-pdf/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stapel ausfüllen (v2, NDJSON)", description = "Wie /v2/fill-pdf/batch, liest einen Antrag pro Zeile als Strom")
+    public ResponseEntity<ApiResponse<BatchResult>> fillPdfBatchNdjson(
+            InputStream body,
+            @RequestParam(required = false) String templatePath
+    ) {
+        try (MappingIterator<WohngeldAntragRequestDTO> requestDtos =
+                     objectMapper.readerFor(WohngeldAntragRequestDTO.class).readValues(body)) {
+            BatchResult result = batchFillService.fillBatch(requestDtos, templatePath);
+            return ResponseEntity.ok(ApiResponse.success(batchMessage(result), result));
+        } catch (IOException | RuntimeJsonMappingException e) {
+            log.error("Fehler beim Lesen des NDJSON-Stapels: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Fehler: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/v2/fill-pdf/bundle", produces = MediaType.APPLICATION_PDF_VALUE)
+    @Operation(summary = "Sammeldokument für den Druck (v2)",
+            description = "Füllt alle Anträge, flacht sie und liefert sie als eine PDF. "
+                    + "Schriften und Vorlagen-Inhalte werden nur einmal eingebettet. "
+                    + "Höchstens wohngeld.bundle.max-items Anträge pro Sammeldokument.")
+    public void fillPdfBundle(
+            @RequestBody List<WohngeldAntragRequestDTO> requestDtos,
+            @RequestParam(required = false) String templatePath,
+            HttpServletResponse response
+    ) throws IOException {
+        try {
+            printBundleService.checkSize(requestDtos.size());
+        } catch (BundleTooLargeException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        List<WohngeldAntragRequest> requests = new ArrayList<>(requestDtos.size());
+        for (int i = 0; i < requestDtos.size(); i++) {
+            String errors = requestDtos.get(i) == null
+                    ? "Leerer Eintrag"
+                    : batchFillService.validationErrors(requestDtos.get(i));
+            if (errors != null) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        "Validierungsfehler in Eintrag " + i + ": " + errors);
+                return;
+            }
+            requests.add(antragMapper.toInternal(requestDtos.get(i)));
+        }
+
+        try {
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"wohngeldantraege_druck.pdf\"");
+            printBundleService.writeBundle(requests, templatePath, response.getOutputStream());
+        } catch (AdmissionRejectedException e) {
+            response.reset();
+            rejectOverloaded(response, e);
+        } catch (IOException e) {
+            log.error("Fehler beim Erstellen des Sammeldokuments: {}", e.getMessage());
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Fehler: " + e.getMessage());
+            }
+        }
+    }
+
+    private void rejectOverloaded(HttpServletResponse response, AdmissionRejectedException e) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    private String batchMessage(BatchResult result) {
+        return String.format("Stapel verarbeitet: %d von %d erfolgreich", result.getSucceeded(), result.getTotal());
+    }
+
+    @GetMapping("/v2/templates")
+    @Operation(summary = "Vorlagen (v2)", description = "Listet die registrierten PDF-Vorlagen; ihre ID kann als templatePath übergeben werden")
+    public ResponseEntity<ApiResponse<List<TemplateInfo>>> getTemplates() {
+        List<TemplateInfo> templates = templateCache.describe();
+        return ResponseEntity.ok(ApiResponse.success("Registrierte Vorlagen: " + templates.size(), templates));
+    }
+
     @GetMapping("/v2/data/sample")
     @Operation(summary = "Beispieldaten (v2)", description = "Gibt Beispiel-Antragsdaten im neuen DTO-Format zurück")
     public ResponseEntity<WohngeldAntragRequestDTO> getSampleDataV2() {
-        WohngeldAntragRequestDTO sample = createSampleDataDTO();
+        WohngeldAntragRequestDTO sample = sampleDataFactory.createSampleDataDTO();
         return ResponseEntity.ok(sample);
     }
 
-    /**
-     * Creates realistic sample data based on transcript analysis.
-     * Typical case: Rentner with EU-Rente and Pflegegrad.
-     */
-    private WohngeldAntragRequestDTO createSampleDataDTO() {
-        return WohngeldAntragRequestDTO.builder()
-                .antrag(AntragMetadatenDTO.builder()
-                        .erstantrag(true)
-                        // wohngeldAb NOT needed for Erstantrag - counts from submission
-                        .antragsdatum("21.12.2025")
-                        .formloserAntragDatum("07.01.2025")  // If informal application was sent earlier
-                        .build())
-                .antragsteller(AntragstellerDTO.builder()
-                        .familienname("Beispiel")
-                        .vorname("Maria")
-                        .geburtsdatum("23.05.1962")
-                        .staatsangehoerigkeit("deutsch")
-                        .geschlecht("WEIBLICH")
-                        .familienstand("GESCHIEDEN")
-                        .erwerbsstatus("RENTNER")  // Most common for this clientele
-                        // geburtsname, geburtsort not needed
-                        // telefon, email are optional ("freiwillig")
-                        .build())
-                .adresse(AdresseDTO.builder()
-                        .strasse("Heilig-Geist-Str.")
-                        .hausnummer("3")
-                        .plz("14467")
-                        .ort("Potsdam")
-                        .bundesland("Brandenburg")
-                        .build())
-                .wohnung(WohnungDTO.builder()
-                        .wohnflaecheQm(45.0)
-                        .wohnverhaeltnis("HAUPTMIETER")  // Most common
-                        .verwandtschaftMitVermieter(false)
-                        .mietpreisbindung(false)  // Only true with WBS
-                        .build())
-                .miete(MieteDTO.builder()
-                        .gesamtmiete(463.25)
-                        .heizkostenEnthalten(false)
-                        .heizkosten(61.50)
-                        .warmwasserEnthalten(false)
-                        .warmwasserkosten(0.0)
-                        .sonstigeKosten(0.0)
-                        .mietaenderung("NEIN")  // Always NEIN - send update if it changes
-                        .build())
-                .einkommen(EinkommenDTO.builder()
-                        .einnahmen(List.of(
-                                EinnahmeDTO.builder()
-                                        .art("Erwerbsminderungsrente")  // Most common: EU-Rente
-                                        .bruttoBetrag(855.42)
-                                        .turnus("MONATLICH")
-                                        .build(),
-                                EinnahmeDTO.builder()
-                                        .art("Zuschlag zur Rente")
-                                        .bruttoBetrag(38.49)
-                                        .turnus("MONATLICH")
-                                        .build()
-                        ))
-                        .krankenPflegeversicherung(true)  // Usually JA - from Rentenbescheid
-                        .rentenversicherung(false)  // Rentner don't pay this
-                        .steuern(false)  // Only ~2% pay taxes
-                        .build())
-                .bankverbindung(BankverbindungDTO.builder()
-                        .iban("DE89 3704 0044 0532 0130 00")
-                        .bankName("Sparkasse Potsdam")
-                        .kontoinhaberFamilienname("Beispiel")
-                        .kontoinhaberVorname("Maria")
-                        .kontoinhaberAnschrift("Heilig-Geist-Str. 3, 14467 Potsdam")
-                        .build())
-                .zusatzfragen(ZusatzfragenDTO.builder()
-                        .andereWohnungWohngeld(false)
-                        .zweitwohnsitz(false)
-                        .transferleistungen(true)  // Grundsicherung beantragt
-                        .transferleistungArt("GRUNDSICHERUNG")  // Type 2
-                        .transferleistungDatum("07.01.2025")  // Date of formloser Antrag
-                        .aufgefordertZuBeantragen(false)
-                        .schwerbehinderungOderPflege(true)  // Common for this clientele
-                        .pflegegrad("PG 2")
-                        .haeuslichPflegebeduerftig(false)
-                        .vermoegen(false)  // Under 60,000 EUR threshold
-                        .einverstaendnisKontoauszuege(true)  // Usually JA
-                        .build())
-                .build();
-    }
-
     private WohngeldAntragRequest createSampleData() {
         return WohngeldAntragRequest.builder()
                 .antragsteller(Antragsteller.builder()
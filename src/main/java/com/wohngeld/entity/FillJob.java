@@ -0,0 +1,40 @@
+package com.wohngeld.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Asynchroner Füll-Auftrag. Die Metadaten liegen in der Datenbank,
+ * damit Status und offene Einträge einen Neustart überstehen.
+ */
+@Entity
+@Table(name = "fill_job")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FillJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED }
+
+    @Id
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    private String templatePath;
+
+    private int total;
+    private int succeeded;
+    private int failed;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
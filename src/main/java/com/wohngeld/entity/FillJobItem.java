@@ -0,0 +1,46 @@
+package com.wohngeld.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ein Antrag innerhalb eines {@link FillJob}.
+ * Die Antragsdaten werden als JSON gespeichert, bis der Eintrag verarbeitet ist.
+ */
+@Entity
+@Table(name = "fill_job_item", indexes = {
+        @Index(name = "idx_fill_job_item_job", columnList = "jobId"),
+        @Index(name = "idx_fill_job_item_status", columnList = "status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FillJobItem {
+
+    public enum Status { PENDING, DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String jobId;
+
+    private int itemIndex;
+
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Lob
+    @JsonIgnore
+    private String payload;
+
+    private String filename;
+
+    @Column(length = 1000)
+    private String message;
+}
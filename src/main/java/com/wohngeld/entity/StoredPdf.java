@@ -0,0 +1,35 @@
+package com.wohngeld.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Eine abgelegte PDF. Der Dateiname ist der Schlüssel für Downloads und Aufträge;
+ * der Inhalt liegt einmal pro SHA-256 im Ausgabeverzeichnis, siehe {@code PdfStorageService}.
+ */
+@Entity
+@Table(name = "stored_pdf", indexes = {
+        @Index(name = "idx_stored_pdf_hash", columnList = "contentHash"),
+        @Index(name = "idx_stored_pdf_created", columnList = "createdAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredPdf {
+
+    @Id
+    private String filename;
+
+    @Column(length = 64, nullable = false)
+    private String contentHash;
+
+    private long sizeBytes;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,23 @@
+package com.wohngeld.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private int workers;
+    private long durationMs;
+    private double itemsPerSecond;
+    private List<BatchItemResult> items;
+}
@@ -0,0 +1,23 @@
+package com.wohngeld.model;
+
+/**
+ * Kompression beim vollständigen Speichern einer PDF.
+ */
+public enum Compression {
+
+    /**
+     * Klassische Cross-Reference-Tabelle, keine Objektströme. Schnellstes Speichern, größte Datei.
+     */
+    NONE,
+
+    /**
+     * Objektströme und Cross-Reference-Stream mit PDFBox-Standardgröße.
+     */
+    STANDARD,
+
+    /**
+     * Wie STANDARD mit größeren Objektströmen; zusätzlich werden unkomprimierte Seiteninhalte
+     * und Erscheinungsbilder (z.B. die beim Füllen erzeugten) mit Flate komprimiert.
+     */
+    MAXIMUM
+}
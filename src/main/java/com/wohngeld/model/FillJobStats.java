@@ -0,0 +1,20 @@
+package com.wohngeld.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FillJobStats {
+
+    private int queuedItems;
+    private int inFlightItems;
+    private int workerPoolSize;
+    private int activeWorkers;
+    private int workerQueueSize;
+    private double workerUtilization;
+}
@@ -0,0 +1,18 @@
+package com.wohngeld.model;
+
+/**
+ * Wie die Erscheinungsbilder (Appearance Streams) der Formularfelder entstehen.
+ */
+public enum FillMode {
+
+    /**
+     * PDFBox erzeugt beim Setzen jedes Wertes das Erscheinungsbild (Standard, für die endgültige Abgabe).
+     */
+    EAGER,
+
+    /**
+     * Nur die Werte werden gesetzt und die AcroForm als {@code NeedAppearances} markiert;
+     * der PDF-Viewer erzeugt die Darstellung beim Öffnen. Deutlich schneller, z.B. für Vorschauen.
+     */
+    DEFERRED
+}
@@ -0,0 +1,54 @@
+package com.wohngeld.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optionen für einen Füllvorgang. Alle Optionen verändern die erzeugte PDF
+ * und gehen deshalb in den Cache-Schlüssel ein.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FillOptions {
+
+    @Builder.Default
+    private FillMode mode = FillMode.EAGER;
+
+    /**
+     * Formularfelder in den Seiteninhalt übernehmen; die PDF ist danach nicht mehr editierbar.
+     */
+    private boolean flatten;
+
+    @Builder.Default
+    private OutputMode output = OutputMode.FULL;
+
+    /**
+     * Kompression beim vollständigen Speichern; {@code null} = Voreinstellung des Endpunkts.
+     */
+    private Compression compression;
+
+    public static FillOptions defaults() {
+        return FillOptions.builder().build();
+    }
+
+    /**
+     * Kopie mit der angegebenen Kompression, falls keine gesetzt ist.
+     */
+    public FillOptions withDefaultCompression(Compression defaultCompression) {
+        if (compression != null) {
+            return this;
+        }
+        return new FillOptions(mode, flatten, output, defaultCompression);
+    }
+
+    /**
+     * Inkrementell speichern, sofern nicht geflacht wird.
+     */
+    public boolean isIncrementalSave() {
+        return output == OutputMode.INCREMENTAL && !flatten;
+    }
+}
@@ -0,0 +1,19 @@
+package com.wohngeld.model;
+
+/**
+ * Wie die gefüllte PDF geschrieben wird.
+ */
+public enum OutputMode {
+
+    /**
+     * Das ganze Dokument wird neu geschrieben (Standard).
+     */
+    FULL,
+
+    /**
+     * Inkrementelles Update: Die Bytes der Vorlage werden unverändert übernommen,
+     * angehängt werden nur die geänderten Feld-Objekte. Nicht kombinierbar mit Flatten,
+     * das den Großteil des Dokuments ändert; dann wird vollständig geschrieben.
+     */
+    INCREMENTAL
+}
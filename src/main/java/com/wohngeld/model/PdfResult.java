@@ -13,6 +13,14 @@ public class PdfResult {
 
     private String outputPath;
     private String filename;
+    private String templateId;
+    private String templateVersion;
     private int fieldsFound;
     private int fieldsFilled;
+    private FillMode fillMode;
+    private boolean flattened;
+    private OutputMode outputMode;
+    private Compression compression;
+    private long durationMs;
+    private long sizeBytes;
 }
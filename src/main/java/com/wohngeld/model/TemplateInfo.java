@@ -0,0 +1,21 @@
+package com.wohngeld.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateInfo {
+
+    private String id;
+    private String source;
+    private boolean defaultTemplate;
+    private boolean loaded;
+    private Integer sizeBytes;
+    private Integer fields;
+    private String version;
+}
@@ -0,0 +1,16 @@
+package com.wohngeld.repository;
+
+import com.wohngeld.entity.FillJobItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface FillJobItemRepository extends JpaRepository<FillJobItem, Long> {
+
+    List<FillJobItem> findByJobIdOrderByItemIndex(String jobId);
+
+    @Query("select i.id from FillJobItem i where i.status = :status order by i.id")
+    List<Long> findIdsByStatus(@Param("status") FillJobItem.Status status);
+}
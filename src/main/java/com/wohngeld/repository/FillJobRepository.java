@@ -0,0 +1,39 @@
+package com.wohngeld.repository;
+
+import com.wohngeld.entity.FillJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface FillJobRepository extends JpaRepository<FillJob, String> {
+
+    @Modifying
+    @Transactional
+    @Query("update FillJob j set j.status = :running, j.startedAt = :now where j.id = :id and j.status = :queued")
+    int markRunning(@Param("id") String id,
+                    @Param("queued") FillJob.Status queued,
+                    @Param("running") FillJob.Status running,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update FillJob j set j.succeeded = j.succeeded + 1 where j.id = :id")
+    int incrementSucceeded(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("update FillJob j set j.failed = j.failed + 1 where j.id = :id")
+    int incrementFailed(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("update FillJob j set j.status = :completed, j.finishedAt = :now "
+            + "where j.id = :id and j.status <> :completed and j.succeeded + j.failed >= j.total")
+    int markCompletedIfDone(@Param("id") String id,
+                            @Param("completed") FillJob.Status completed,
+                            @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,24 @@
+package com.wohngeld.repository;
+
+import com.wohngeld.entity.StoredPdf;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StoredPdfRepository extends JpaRepository<StoredPdf, String> {
+
+    boolean existsByContentHash(String contentHash);
+
+    List<StoredPdf> findTop500ByCreatedAtBeforeOrderByCreatedAt(LocalDateTime cutoff);
+
+    List<StoredPdf> findTop500ByOrderByCreatedAt();
+
+    /**
+     * Belegter Platz im Ausgabeverzeichnis: jeder Inhalt zählt nur einmal.
+     */
+    @Query(value = "select coalesce(sum(size_bytes), 0) from "
+            + "(select distinct content_hash, size_bytes from stored_pdf) blobs", nativeQuery = true)
+    long sumDistinctContentBytes();
+}
@@ -0,0 +1,17 @@
+package com.wohngeld.service;
+
+import lombok.Getter;
+
+/**
+ * Die PDF-Erzeugung ist ausgelastet; der Client soll es nach {@code retryAfterSeconds} erneut versuchen.
+ */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,158 @@
+package com.wohngeld.service;
+
+import com.wohngeld.dto.WohngeldAntragRequestDTO;
+import com.wohngeld.mapper.WohngeldAntragMapper;
+import com.wohngeld.model.BatchItemResult;
+import com.wohngeld.model.BatchResult;
+import com.wohngeld.model.PdfResult;
+import com.wohngeld.model.WohngeldAntragRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Füllt viele Anträge auf einmal, parallel auf dem {@link PdfWorkerPool}.
+ * Alle Einträge teilen sich die Vorlage aus dem {@link TemplateCache};
+ * ein fehlerhafter Eintrag bricht den Rest des Stapels nicht ab.
+ * Ein Stapel ist auf {@code wohngeld.batch.max-items} Einträge begrenzt, da alle Ergebnisse bis zum
+ * Ende gehalten werden.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BatchFillService {
+
+    private final PdfService pdfService;
+    private final WohngeldAntragMapper antragMapper;
+    private final Validator validator;
+    private final PdfWorkerPool workerPool;
+
+    @Value("${wohngeld.batch.max-items:500}")
+    private int maxItems;
+
+    /**
+     * Verarbeitet die Anträge in Eingabereihenfolge. Einträge werden schon während des Lesens
+     * eingereicht, so dass ein NDJSON-Strom nicht vorab vollständig gelesen werden muss.
+     */
+    public BatchResult fillBatch(Iterator<WohngeldAntragRequestDTO> requests, String templatePath) {
+        long start = System.nanoTime();
+
+        List<Future<BatchItemResult>> futures = new ArrayList<>();
+        while (requests.hasNext()) {
+            int index = futures.size();
+            if (index >= maxItems) {
+                // A streamed batch is only known to be too large once the limit is passed
+                futures.forEach(future -> future.cancel(true));
+                throw new BatchTooLargeException(maxItems);
+            }
+            WohngeldAntragRequestDTO dto = requests.next();
+            futures.add(workerPool.submit(() -> fillItem(index, dto, templatePath)));
+        }
+
+        List<BatchItemResult> items = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            items.add(await(i, futures.get(i)));
+        }
+
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        int succeeded = (int) items.stream().filter(BatchItemResult::isSuccess).count();
+        double itemsPerSecond = durationMs > 0 ? items.size() * 1000.0 / durationMs : items.size();
+
+        log.info("Stapel verarbeitet: {} Anträge ({} erfolgreich) in {} ms mit {} Workern ({} Anträge/s)",
+                items.size(), succeeded, durationMs, workerPool.getPoolSize(),
+                String.format("%.1f", itemsPerSecond));
+
+        return BatchResult.builder()
+                .total(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .workers(workerPool.getPoolSize())
+                .durationMs(durationMs)
+                .itemsPerSecond(itemsPerSecond)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Lehnt einen Stapel ab, der mehr als {@code wohngeld.batch.max-items} Einträge hat.
+     */
+    public void checkSize(int size) {
+        if (size > maxItems) {
+            throw new BatchTooLargeException(maxItems);
+        }
+    }
+
+    /**
+     * Validiert, mappt und füllt einen einzelnen Eintrag.
+     */
+    BatchItemResult fillItem(int index, WohngeldAntragRequestDTO dto, String templatePath) {
+        if (dto == null) {
+            return failure(index, "Leerer Eintrag");
+        }
+
+        String errors = validationErrors(dto);
+        if (errors != null) {
+            return failure(index, "Validierungsfehler: " + errors);
+        }
+
+        try {
+            WohngeldAntragRequest request = antragMapper.toInternal(dto);
+            PdfResult result = pdfService.fillPdf(request, templatePath);
+            return BatchItemResult.builder()
+                    .index(index)
+                    .success(true)
+                    .message("PDF erfolgreich erstellt")
+                    .result(result)
+                    .build();
+        } catch (Exception e) {
+            log.error("Fehler bei Stapel-Eintrag {}: {}", index, e.getMessage());
+            return failure(index, "Fehler: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validiert einen Eintrag wie {@code @Valid} es im Controller täte.
+     *
+     * @return sortierte Fehlermeldungen oder {@code null}, wenn der Eintrag gültig ist
+     */
+    public String validationErrors(WohngeldAntragRequestDTO dto) {
+        Set<ConstraintViolation<WohngeldAntragRequestDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private BatchItemResult await(int index, Future<BatchItemResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure(index, "Abgebrochen");
+        } catch (ExecutionException e) {
+            return failure(index, "Fehler: " + e.getCause().getMessage());
+        }
+    }
+
+    private BatchItemResult failure(int index, String message) {
+        return BatchItemResult.builder()
+                .index(index)
+                .success(false)
+                .message(message)
+                .build();
+    }
+}
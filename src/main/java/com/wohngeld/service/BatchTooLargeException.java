@@ -0,0 +1,11 @@
+package com.wohngeld.service;
+
+/**
+ * Ein Stapel enthält mehr Einträge als erlaubt ({@code wohngeld.batch.max-items}).
+ */
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int maxItems) {
+        super("Stapel zu groß: höchstens " + maxItems + " Einträge erlaubt");
+    }
+}
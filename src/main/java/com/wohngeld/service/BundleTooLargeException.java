@@ -0,0 +1,11 @@
+package com.wohngeld.service;
+
+/**
+ * Ein Sammeldokument enthält mehr Anträge als erlaubt ({@code wohngeld.bundle.max-items}).
+ */
+public class BundleTooLargeException extends RuntimeException {
+
+    public BundleTooLargeException(int maxItems) {
+        super("Sammeldokument zu groß: höchstens " + maxItems + " Anträge erlaubt");
+    }
+}
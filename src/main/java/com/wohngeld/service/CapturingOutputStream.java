@@ -0,0 +1,61 @@
+package com.wohngeld.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Schreibt durch und behält dabei eine Kopie, solange diese unter der Grenze bleibt.
+ * So kann eine gestreamte PDF zusätzlich in den {@link FillCache} wandern.
+ */
+class CapturingOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final int limit;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+    CapturingOutputStream(OutputStream out, int limit) {
+        this.out = out;
+        this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (reserve(1)) {
+            copy.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (reserve(len)) {
+            copy.write(b, off, len);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Die mitgeschriebenen Bytes oder {@code null}, wenn die Grenze überschritten wurde.
+     */
+    byte[] getCaptured() {
+        return copy != null ? copy.toByteArray() : null;
+    }
+
+    private boolean reserve(int len) {
+        if (copy != null && copy.size() + len > limit) {
+            copy = null;
+        }
+        return copy != null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.wohngeld.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable block of constant field values (e.g. the "default Nein" checkboxes).
+ * Recorded once at class initialization instead of being re-put into every request's mapping.
+ */
+public final class FieldDefaults {
+
+    private final String[] fieldNames;
+    private final Object[] values;
+
+    public FieldDefaults(Consumer<FieldSink> writer) {
+        List<String> names = new ArrayList<>();
+        List<Object> vals = new ArrayList<>();
+        writer.accept((name, value) -> {
+            names.add(name);
+            vals.add(value);
+        });
+        this.fieldNames = names.toArray(new String[0]);
+        this.values = vals.toArray();
+    }
+
+    public int size() {
+        return fieldNames.length;
+    }
+
+    String getFieldName(int i) {
+        return fieldNames[i];
+    }
+
+    Object getValue(int i) {
+        return values[i];
+    }
+
+    void writeTo(FieldSink sink) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            sink.put(fieldNames[i], values[i]);
+        }
+    }
+}
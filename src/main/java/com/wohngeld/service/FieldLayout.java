@@ -0,0 +1,65 @@
+package com.wohngeld.service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed slot layout of all fields the {@link PdfFieldMapper} can write.
+ * Every field name gets a stable slot, so a {@link FillPlan} is a plain array
+ * and templates can map their PDF fields to slots once when they are indexed.
+ */
+public final class FieldLayout {
+
+    private final String[] fieldNames;
+    private final Map<String, Integer> slotByName;
+    private final Map<FieldDefaults, int[]> defaultSlots = new ConcurrentHashMap<>();
+
+    public FieldLayout(Collection<String> fieldNames) {
+        this.fieldNames = fieldNames.toArray(new String[0]);
+        Map<String, Integer> slots = new HashMap<>();
+        for (int slot = 0; slot < this.fieldNames.length; slot++) {
+            slots.putIfAbsent(this.fieldNames[slot], slot);
+        }
+        this.slotByName = Map.copyOf(slots);
+    }
+
+    /**
+     * Slot of a field name; unknown names are a programming error in the mapper.
+     */
+    public int slotOf(String fieldName) {
+        Integer slot = slotByName.get(fieldName);
+        if (slot == null) {
+            throw new IllegalArgumentException("Feld nicht im Layout des PdfFieldMapper: " + fieldName);
+        }
+        return slot;
+    }
+
+    public String getFieldName(int slot) {
+        return fieldNames[slot];
+    }
+
+    public List<String> getFieldNames() {
+        return List.of(fieldNames);
+    }
+
+    public int size() {
+        return fieldNames.length;
+    }
+
+    public FillPlan newPlan() {
+        return new FillPlan(this);
+    }
+
+    /**
+     * Slots of a defaults block, resolved on first use and then reused by every plan.
+     */
+    int[] slotsOf(FieldDefaults defaults) {
+        return defaultSlots.computeIfAbsent(defaults, d -> {
+            int[] slots = new int[d.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = slotOf(d.getFieldName(i));
+            }
+            return slots;
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.wohngeld.service;
+
+/**
+ * Target of the {@link PdfFieldMapper} mapping methods.
+ * A plain map can be used via {@code map::put}; {@link FillPlan} writes into a fixed slot layout.
+ */
+@FunctionalInterface
+public interface FieldSink {
+
+    void put(String fieldName, Object value);
+
+    /**
+     * Writes a block of constant defaults. Sinks with a slot layout apply them from a precompiled layer.
+     */
+    default void putDefaults(FieldDefaults defaults) {
+        defaults.writeTo(this);
+    }
+}
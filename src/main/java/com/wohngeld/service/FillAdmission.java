@@ -0,0 +1,140 @@
+package com.wohngeld.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead für die CPU-lastige PDF-Erzeugung.
+ *
+ * Höchstens so viele Füllvorgänge wie CPU-Kerne laufen gleichzeitig, unabhängig davon,
+ * wie viele Tomcat-Threads Anfragen annehmen. Interaktive Anfragen warten in einer begrenzten
+ * Warteschlange und werden bei Überlauf oder nach Ablauf der Wartezeit sofort abgelehnt
+ * ({@link AdmissionRejectedException}, HTTP 503 mit {@code Retry-After}).
+ * Hintergrundarbeit (Stapel, Aufträge) wartet dagegen ohne Limit auf einen freien Platz.
+ */
+@Component
+@Slf4j
+public class FillAdmission {
+
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long maxWaitMs;
+    private final long retryAfterSeconds;
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public FillAdmission(@Value("${wohngeld.pdf.admission.max-concurrent:0}") int maxConcurrent,
+                         @Value("${wohngeld.pdf.admission.max-waiting:0}") int maxWaiting,
+                         @Value("${wohngeld.pdf.admission.max-wait-ms:2000}") long maxWaitMs,
+                         @Value("${wohngeld.pdf.admission.retry-after-seconds:2}") long retryAfterSeconds,
+                         MeterRegistry meterRegistry) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : cores;
+        this.maxWaiting = maxWaiting > 0 ? maxWaiting : 2 * this.maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(this.maxConcurrent, true);
+
+        this.rejectedQueueFull = Counter.builder("wohngeld.pdf.admission.rejected")
+                .tag("reason", "queue_full")
+                .description("Abgelehnte Füllvorgänge")
+                .register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("wohngeld.pdf.admission.rejected")
+                .tag("reason", "timeout")
+                .description("Abgelehnte Füllvorgänge")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.admission.in-flight", this, FillAdmission::getInFlight)
+                .description("Laufende Füllvorgänge")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.admission.waiting", waiting, AtomicInteger::get)
+                .description("Auf einen freien Platz wartende Füllvorgänge")
+                .register(meterRegistry);
+
+        log.info("PDF-Bulkhead: {} gleichzeitig, {} wartend, max. {} ms Wartezeit",
+                this.maxConcurrent, this.maxWaiting, maxWaitMs);
+    }
+
+    /**
+     * Für interaktive Anfragen: wartet begrenzt auf einen freien Platz, sonst Ablehnung.
+     */
+    public Permit admit() {
+        if (permits.tryAcquire()) {
+            return new Permit();
+        }
+
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejectedQueueFull.increment();
+            throw new AdmissionRejectedException("PDF-Erzeugung ausgelastet, Warteschlange voll", retryAfterSeconds);
+        }
+        try {
+            if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                rejectedTimeout.increment();
+                throw new AdmissionRejectedException("PDF-Erzeugung ausgelastet, Wartezeit überschritten",
+                        retryAfterSeconds);
+            }
+            return new Permit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AdmissionRejectedException("Warten auf PDF-Erzeugung unterbrochen", retryAfterSeconds);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * Für Hintergrundarbeit: wartet, bis ein Platz frei ist.
+     */
+    public Permit acquire() throws InterruptedIOException {
+        waiting.incrementAndGet();
+        try {
+            permits.acquire();
+            return new Permit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Warten auf PDF-Erzeugung unterbrochen");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * Ein belegter Platz; wird beim Schließen freigegeben.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private boolean released;
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                permits.release();
+            }
+        }
+    }
+}
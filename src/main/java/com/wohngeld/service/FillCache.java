@@ -0,0 +1,175 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.FillOptions;
+import com.wohngeld.model.PdfResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache fertiger PDFs für wiederholte, identische Anträge (Doppelklick, Retry, erneuter Download).
+ *
+ * Schlüssel ist ein kanonischer Hash über die gemappten Feldwerte ({@link FillPlan}), die
+ * Version der Vorlage und die {@link FillOptions}; die Reihenfolge der JSON-Felder im Request
+ * spielt also keine Rolle.
+ * Die Einträge liegen im Speicher und werden nach LRU verdrängt, sobald die Byte-Grenze erreicht ist.
+ * Zusätzlich merkt sich der Cache, welcher {@code Idempotency-Key} zu welchem Hash gehört.
+ */
+@Component
+@Slf4j
+public class FillCache {
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, String> hashByIdempotencyKey;
+    private long currentBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public FillCache(@Value("${wohngeld.cache.max-bytes:67108864}") long maxBytes,
+                     @Value("${wohngeld.cache.max-entry-bytes:4194304}") int maxEntryBytes,
+                     @Value("${wohngeld.cache.idempotency-keys:10000}") int maxIdempotencyKeys,
+                     MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.hashByIdempotencyKey = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxIdempotencyKeys;
+            }
+        };
+
+        this.hits = Counter.builder("wohngeld.cache.hits")
+                .description("Aus dem Cache ausgelieferte PDFs")
+                .register(meterRegistry);
+        this.misses = Counter.builder("wohngeld.cache.misses")
+                .description("Neu erzeugte PDFs")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.cache.bytes", this, FillCache::getCurrentBytes)
+                .description("Belegter Speicher des PDF-Caches")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Kanonischer Hash eines Antrags für eine bestimmte Vorlage und Optionen.
+     */
+    public String requestHash(FillPlan plan, PdfTemplate template, FillOptions options) {
+        MessageDigest digest = newDigest();
+        digest.update(template.getVersion().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(options.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        plan.digestInto(digest);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Bindet den Idempotency-Key an den Hash. Wurde der Key schon für andere Daten verwendet,
+     * wird eine {@link IdempotencyKeyConflictException} geworfen.
+     */
+    public synchronized void claimIdempotencyKey(String idempotencyKey, String requestHash) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return;
+        }
+        String existing = hashByIdempotencyKey.putIfAbsent(idempotencyKey, requestHash);
+        if (existing != null && !existing.equals(requestHash)) {
+            throw new IdempotencyKeyConflictException(idempotencyKey);
+        }
+    }
+
+    public synchronized Entry get(String requestHash) {
+        Entry entry = entries.get(requestHash);
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Legt eine fertige PDF ab. Zu große Dokumente werden nicht gecacht.
+     */
+    public synchronized void put(String requestHash, PdfResult result, byte[] content) {
+        if (content == null || content.length > maxEntryBytes || content.length > maxBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(requestHash, new Entry(copy(result), content));
+        if (previous != null) {
+            currentBytes -= previous.content().length;
+        }
+        currentBytes += content.length;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= eldest.next().content().length;
+            eldest.remove();
+        }
+        log.debug("PDF gecacht: {} ({} Bytes, Cache {} / {} Bytes)",
+                result.getFilename(), content.length, currentBytes, maxBytes);
+    }
+
+    /**
+     * Größte PDF, die noch gecacht wird; größere Dokumente müssen nicht mitgeschrieben werden.
+     */
+    public int getMaxEntryBytes() {
+        return (int) Math.min(maxEntryBytes, maxBytes);
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    private static PdfResult copy(PdfResult result) {
+        return PdfResult.builder()
+                .outputPath(result.getOutputPath())
+                .filename(result.getFilename())
+                .templateId(result.getTemplateId())
+                .templateVersion(result.getTemplateVersion())
+                .fieldsFound(result.getFieldsFound())
+                .fieldsFilled(result.getFieldsFilled())
+                .fillMode(result.getFillMode())
+                .flattened(result.isFlattened())
+                .outputMode(result.getOutputMode())
+                .compression(result.getCompression())
+                .durationMs(result.getDurationMs())
+                .sizeBytes(result.getSizeBytes())
+                .build();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Eine gecachte PDF samt dem Ergebnis der ersten Erzeugung.
+     */
+    public record Entry(PdfResult result, byte[] content) {
+
+        /**
+         * Eigene Kopie des Ergebnisses, damit Aufrufer sie verändern dürfen.
+         */
+        public PdfResult copyResult() {
+            return copy(result);
+        }
+    }
+}
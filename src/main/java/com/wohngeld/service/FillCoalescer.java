@@ -0,0 +1,102 @@
+package com.wohngeld.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Single-Flight vor dem {@link PdfService}: Laufen mehrere identische Anträge gleichzeitig ein
+ * (gleicher Hash aus {@link FillCache#requestHash}), füllt nur der erste die Vorlage.
+ * Die übrigen warten auf dessen Future und bekommen dieselbe fertige PDF.
+ */
+@Component
+@Slf4j
+public class FillCoalescer {
+
+    private final Map<String, CompletableFuture<FillCache.Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    public FillCoalescer(MeterRegistry meterRegistry) {
+        this.leaders = Counter.builder("wohngeld.fill.executed")
+                .description("Tatsächlich ausgeführte Füllvorgänge hinter dem Single-Flight")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("wohngeld.fill.coalesced")
+                .description("Anträge, die auf einen gleichzeitig laufenden identischen Füllvorgang gewartet haben")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.fill.in-flight", inFlight, Map::size)
+                .description("Laufende, eindeutige Füllvorgänge")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Führt {@code fill} aus, sofern für den Hash nicht schon ein Füllvorgang läuft;
+     * sonst wird auf dessen Ergebnis gewartet. Fehler des laufenden Vorgangs gelten für alle Wartenden.
+     */
+    public Flight execute(String requestHash, Fill fill) throws IOException {
+        CompletableFuture<FillCache.Entry> own = new CompletableFuture<>();
+        CompletableFuture<FillCache.Entry> running = inFlight.putIfAbsent(requestHash, own);
+
+        if (running != null) {
+            coalesced.increment();
+            log.debug("Identischer Antrag läuft bereits, warte auf Ergebnis ({})", requestHash);
+            return new Flight(false, await(running));
+        }
+
+        leaders.increment();
+        try {
+            FillCache.Entry entry = fill.run();
+            own.complete(entry);
+            return new Flight(true, entry);
+        } catch (IOException | RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(requestHash, own);
+        }
+    }
+
+    private FillCache.Entry await(CompletableFuture<FillCache.Entry> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Warten auf identischen Füllvorgang unterbrochen", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Identischer Füllvorgang fehlgeschlagen: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Der eigentliche Füllvorgang; liefert Ergebnis und (falls nicht zu groß) die PDF-Bytes.
+     * Er darf nicht in die Antwort eines einzelnen Aufrufers schreiben, sonst schlägt ein Fehler
+     * dieser Antwort (z.B. Client-Abbruch) auf alle Wartenden durch.
+     */
+    @FunctionalInterface
+    public interface Fill {
+        FillCache.Entry run() throws IOException;
+    }
+
+    /**
+     * @param leader {@code true}, wenn dieser Aufruf selbst gefüllt hat
+     * @param entry  Ergebnis; {@code content} ist {@code null}, wenn die PDF nicht mitgeschrieben wurde
+     */
+    public record Flight(boolean leader, FillCache.Entry entry) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.wohngeld.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wohngeld.dto.WohngeldAntragRequestDTO;
+import com.wohngeld.entity.FillJob;
+import com.wohngeld.entity.FillJobItem;
+import com.wohngeld.model.BatchItemResult;
+import com.wohngeld.model.FillJobStats;
+import com.wohngeld.repository.FillJobItemRepository;
+import com.wohngeld.repository.FillJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchrone Füll-Aufträge: Einreichen liefert sofort eine Auftrags-ID,
+ * die Einträge werden im Hintergrund auf dem {@link PdfWorkerPool} verarbeitet.
+ *
+ * Ein Dispatcher-Thread gibt höchstens so viele Einträge an den Pool, wie er Threads hat;
+ * der Rest wartet in der eigenen Warteschlange (sichtbar als Queue-Tiefe).
+ * Offene Einträge werden nach einem Neustart aus der Datenbank wieder eingereiht.
+ * Scheitert die Verarbeitung eines Eintrags außerhalb des Füllens (z.B. an der Datenbank), wird er
+ * verzögert erneut eingereiht und nach {@value #MAX_ATTEMPTS} Versuchen als fehlgeschlagen markiert,
+ * damit der Auftrag abgeschlossen werden kann. Status des Eintrags, Zähler und Abschluss des Auftrags
+ * werden in einer Transaktion geschrieben; ein Eintrag ist also nie erledigt, ohne gezählt zu sein.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FillJobService {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_SECONDS = 2;
+
+    private final FillJobRepository jobRepository;
+    private final FillJobItemRepository itemRepository;
+    private final BatchFillService batchFillService;
+    private final PdfWorkerPool workerPool;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<Long> pendingItems = new LinkedBlockingQueue<>();
+    private final Set<Long> queuedItemIds = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+    private Semaphore inFlight;
+    private Thread dispatcher;
+
+    @PostConstruct
+    void start() {
+        inFlight = new Semaphore(workerPool.getPoolSize());
+
+        Gauge.builder("wohngeld.jobs.queue.depth", pendingItems, BlockingQueue::size)
+                .description("Wartende Auftrags-Einträge")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.workers.active", workerPool, PdfWorkerPool::getActiveCount)
+                .description("Aktive PDF-Worker")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.workers.utilization", workerPool,
+                        pool -> (double) pool.getActiveCount() / pool.getPoolSize())
+                .description("Auslastung des PDF-Worker-Pools (0..1)")
+                .register(meterRegistry);
+
+        dispatcher = new Thread(this::dispatchLoop, "fill-job-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        dispatcher.interrupt();
+    }
+
+    /**
+     * Offene Einträge aus einem früheren Lauf wieder aufnehmen.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingItems() {
+        List<Long> ids = itemRepository.findIdsByStatus(FillJobItem.Status.PENDING);
+        if (!ids.isEmpty()) {
+            log.info("Setze {} offene Auftrags-Einträge fort", ids.size());
+            ids.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * Legt einen Auftrag an und reiht seine Einträge ein.
+     */
+    public FillJob submit(List<WohngeldAntragRequestDTO> requests, String templatePath) throws JsonProcessingException {
+        FillJob job = jobRepository.save(FillJob.builder()
+                .id(UUID.randomUUID().toString())
+                .status(FillJob.Status.QUEUED)
+                .templatePath(templatePath)
+                .total(requests.size())
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        List<FillJobItem> items = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            items.add(FillJobItem.builder()
+                    .jobId(job.getId())
+                    .itemIndex(i)
+                    .status(FillJobItem.Status.PENDING)
+                    .payload(objectMapper.writeValueAsString(requests.get(i)))
+                    .build());
+        }
+        itemRepository.saveAll(items).forEach(item -> enqueue(item.getId()));
+
+        if (requests.isEmpty()) {
+            jobRepository.markCompletedIfDone(job.getId(), FillJob.Status.COMPLETED, LocalDateTime.now());
+        }
+
+        log.info("Auftrag {} angelegt: {} Einträge", job.getId(), requests.size());
+        return job;
+    }
+
+    public Optional<FillJob> getJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public List<FillJobItem> getItems(String jobId) {
+        return itemRepository.findByJobIdOrderByItemIndex(jobId);
+    }
+
+    public FillJobStats getStats() {
+        int poolSize = workerPool.getPoolSize();
+        int active = workerPool.getActiveCount();
+        return FillJobStats.builder()
+                .queuedItems(pendingItems.size())
+                .inFlightItems(poolSize - inFlight.availablePermits())
+                .workerPoolSize(poolSize)
+                .activeWorkers(active)
+                .workerQueueSize(workerPool.getQueueSize())
+                .workerUtilization((double) active / poolSize)
+                .build();
+    }
+
+    private void enqueue(Long itemId) {
+        if (queuedItemIds.add(itemId)) {
+            pendingItems.add(itemId);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Long itemId = pendingItems.take();
+                inFlight.acquire();
+                workerPool.submit(() -> {
+                    try {
+                        processItem(itemId);
+                        attempts.remove(itemId);
+                    } catch (RuntimeException e) {
+                        retryOrFail(itemId, e);
+                    } finally {
+                        queuedItemIds.remove(itemId);
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void processItem(Long itemId) {
+        FillJobItem item = itemRepository.findById(itemId).orElse(null);
+        if (item == null || item.getStatus() != FillJobItem.Status.PENDING) {
+            return;
+        }
+        FillJob job = jobRepository.findById(item.getJobId()).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        jobRepository.markRunning(job.getId(), FillJob.Status.QUEUED, FillJob.Status.RUNNING, LocalDateTime.now());
+
+        BatchItemResult result;
+        try {
+            WohngeldAntragRequestDTO dto = objectMapper.readValue(item.getPayload(), WohngeldAntragRequestDTO.class);
+            result = batchFillService.fillItem(item.getItemIndex(), dto, job.getTemplatePath());
+        } catch (Exception e) {
+            log.error("Auftrag {}, Eintrag {}: {}", job.getId(), item.getItemIndex(), e.getMessage());
+            result = BatchItemResult.builder()
+                    .index(item.getItemIndex())
+                    .success(false)
+                    .message("Fehler: " + e.getMessage())
+                    .build();
+        }
+
+        complete(item, result);
+    }
+
+    /**
+     * Reiht einen Eintrag nach einem Fehler außerhalb des Füllens verzögert neu ein;
+     * nach {@link #MAX_ATTEMPTS} Versuchen wird er als fehlgeschlagen abgeschlossen.
+     */
+    private void retryOrFail(Long itemId, RuntimeException e) {
+        int attempt = attempts.merge(itemId, 1, Integer::sum);
+        if (attempt < MAX_ATTEMPTS) {
+            log.warn("Auftrags-Eintrag {}: Versuch {} von {} fehlgeschlagen, neuer Versuch: {}",
+                    itemId, attempt, MAX_ATTEMPTS, e.getMessage());
+            CompletableFuture.delayedExecutor(RETRY_DELAY_SECONDS * attempt, TimeUnit.SECONDS)
+                    .execute(() -> enqueue(itemId));
+            return;
+        }
+
+        attempts.remove(itemId);
+        log.error("Auftrags-Eintrag {} nach {} Versuchen aufgegeben: {}", itemId, attempt, e.getMessage());
+        try {
+            itemRepository.findById(itemId)
+                    .filter(item -> item.getStatus() == FillJobItem.Status.PENDING)
+                    .ifPresent(item -> complete(item, BatchItemResult.builder()
+                            .index(item.getItemIndex())
+                            .success(false)
+                            .message("Fehler: " + e.getMessage())
+                            .build()));
+        } catch (RuntimeException again) {
+            log.error("Auftrags-Eintrag {} bleibt offen bis zum nächsten Start: {}", itemId, again.getMessage());
+        }
+    }
+
+    private void complete(FillJobItem item, BatchItemResult result) {
+        boolean completed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            item.setStatus(result.isSuccess() ? FillJobItem.Status.DONE : FillJobItem.Status.FAILED);
+            item.setMessage(truncate(result.getMessage()));
+            item.setFilename(result.getResult() != null ? result.getResult().getFilename() : null);
+            item.setPayload(null);
+            itemRepository.save(item);
+
+            if (result.isSuccess()) {
+                jobRepository.incrementSucceeded(item.getJobId());
+            } else {
+                jobRepository.incrementFailed(item.getJobId());
+            }
+            return jobRepository.markCompletedIfDone(item.getJobId(), FillJob.Status.COMPLETED,
+                    LocalDateTime.now()) > 0;
+        }));
+
+        if (completed) {
+            log.info("Auftrag {} abgeschlossen", item.getJobId());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH)
+                : message;
+    }
+}
@@ -0,0 +1,77 @@
+package com.wohngeld.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Compiled field values for one fill, stored in the slots of a {@link FieldLayout}.
+ * Allocation per request is a single array; constant defaults are copied in from
+ * precompiled {@link FieldDefaults} layers instead of being re-put by name.
+ */
+public final class FillPlan implements FieldSink {
+
+    private final FieldLayout layout;
+    private final Object[] values;
+
+    FillPlan(FieldLayout layout) {
+        this.layout = layout;
+        this.values = new Object[layout.size()];
+    }
+
+    @Override
+    public void put(String fieldName, Object value) {
+        values[layout.slotOf(fieldName)] = value;
+    }
+
+    @Override
+    public void putDefaults(FieldDefaults defaults) {
+        int[] slots = layout.slotsOf(defaults);
+        for (int i = 0; i < slots.length; i++) {
+            values[slots[i]] = defaults.getValue(i);
+        }
+    }
+
+    public Object get(int slot) {
+        return values[slot];
+    }
+
+    public Object get(String fieldName) {
+        return values[layout.slotOf(fieldName)];
+    }
+
+    public FieldLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Number of slots holding a value.
+     */
+    public int countValues() {
+        int count = 0;
+        for (Object value : values) {
+            if (value != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Feeds the filled slots into the digest in a canonical form (field name, value type, value).
+     * Plans with the same values produce the same bytes, independent of how they were built.
+     */
+    public void digestInto(MessageDigest digest) {
+        for (int slot = 0; slot < values.length; slot++) {
+            Object value = values[slot];
+            if (value == null) {
+                continue;
+            }
+            digest.update(layout.getFieldName(slot).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(value.getClass().getSimpleName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+    }
+}
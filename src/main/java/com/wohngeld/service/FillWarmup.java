@@ -0,0 +1,125 @@
+package com.wohngeld.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wohngeld.dto.WohngeldAntragRequestDTO;
+import com.wohngeld.mapper.WohngeldAntragMapper;
+import com.wohngeld.model.Compression;
+import com.wohngeld.model.FillMode;
+import com.wohngeld.model.FillOptions;
+import com.wohngeld.model.WohngeldAntragRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Wärmt die Füll-Pipeline beim Start auf: Vorlage in den {@link TemplateCache} laden und einige
+ * synthetische Füllvorgänge mit den Beispieldaten ausführen (JSON-Bindung, Mapping, Füllen, Speichern).
+ * So fallen Class-Loading, Schrift-Initialisierung von PDFBox und die ersten JIT-Stufen nicht
+ * auf die ersten echten Anfragen.
+ *
+ * Läuft als {@link ApplicationRunner} vor dem {@code ApplicationReadyEvent}; die Readiness-Probe
+ * meldet erst danach {@code ACCEPTING_TRAFFIC}. Zusätzlich meldet der Health-Indikator
+ * {@code OUT_OF_SERVICE}, solange das Aufwärmen läuft. Die Ergebnisse gehen weder in Cache noch
+ * Ausgabeverzeichnis.
+ *
+ * Mit {@code wohngeld.warmup.exit=true} beendet sich die Anwendung nach dem Aufwärmen; das ist der
+ * Trainingslauf für das CDS-Archiv (Maven-Profil {@code cds}).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class FillWarmup implements ApplicationRunner, HealthIndicator {
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    private final TemplateCache templateCache;
+    private final PdfService pdfService;
+    private final SampleDataFactory sampleDataFactory;
+    private final WohngeldAntragMapper antragMapper;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Value("${wohngeld.warmup.fills:20}")
+    private int fills;
+
+    @Value("${wohngeld.warmup.exit:false}")
+    private boolean exitAfterWarmup;
+
+    @Value("${wohngeld.pdf.compression.streamed:STANDARD}")
+    private Compression compression;
+
+    private volatile Health health = Health.outOfService().withDetail("phase", "pending").build();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (fills <= 0) {
+            health = Health.up().withDetail("phase", "disabled").build();
+            return;
+        }
+
+        health = Health.outOfService().withDetail("phase", "running").withDetail("fills", fills).build();
+        long start = System.nanoTime();
+        long firstFillMs = -1;
+        try {
+            PdfTemplate template = templateCache.get(null);
+            byte[] json = objectMapper.writeValueAsBytes(sampleDataFactory.createSampleDataDTO());
+
+            for (int i = 0; i < fills; i++) {
+                WohngeldAntragRequestDTO dto = objectMapper.readValue(json, WohngeldAntragRequestDTO.class);
+                WohngeldAntragRequest request = antragMapper.toInternal(dto);
+                // Alternate the modes so both appearance paths and flattening are loaded
+                FillOptions options = FillOptions.builder()
+                        .mode(i % 2 == 0 ? FillMode.EAGER : FillMode.DEFERRED)
+                        .flatten(i % 4 == 3)
+                        .compression(compression)
+                        .build();
+                try (PdfService.FilledDocument filled = pdfService.fillDocument(request, template, options)) {
+                    OutputCompression.save(filled.document(), DISCARD, compression);
+                }
+                if (i == 0) {
+                    // Time since JVM start, to compare cold starts with and without the CDS archive
+                    firstFillMs = ManagementFactory.getRuntimeMXBean().getUptime();
+                    log.info("Erster Füllvorgang {} ms nach JVM-Start", firstFillMs);
+                }
+            }
+
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            log.info("Füll-Pipeline aufgewärmt: {} Füllvorgänge in {} ms", fills, durationMs);
+            health = Health.up()
+                    .withDetail("phase", "done")
+                    .withDetail("fills", fills)
+                    .withDetail("durationMs", durationMs)
+                    .withDetail("firstFillAfterStartMs", firstFillMs)
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            // A broken default template must not keep the instance out of rotation forever;
+            // requests with their own template still work and the error shows up here.
+            log.warn("Aufwärmen der Füll-Pipeline fehlgeschlagen: {}", e.getMessage());
+            health = Health.up()
+                    .withDetail("phase", "failed")
+                    .withDetail("error", e.getMessage())
+                    .build();
+        }
+
+        if (exitAfterWarmup) {
+            log.info("Trainingslauf beendet, Anwendung wird heruntergefahren");
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+}
@@ -0,0 +1,11 @@
+package com.wohngeld.service;
+
+/**
+ * Ein {@code Idempotency-Key} wurde bereits für einen Antrag mit anderen Daten verwendet.
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("Idempotency-Key wurde bereits für einen anderen Antrag verwendet: " + idempotencyKey);
+    }
+}
@@ -0,0 +1,100 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.Compression;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceDictionary;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceEntry;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Umsetzung der {@link Compression}-Stufen auf PDFBox.
+ */
+public final class OutputCompression {
+
+    private static final int MAXIMUM_OBJECT_STREAM_SIZE = 1000;
+
+    private OutputCompression() {
+    }
+
+    public static CompressParameters parameters(Compression compression) {
+        return switch (compression) {
+            case NONE -> CompressParameters.NO_COMPRESSION;
+            case STANDARD -> CompressParameters.DEFAULT_COMPRESSION;
+            case MAXIMUM -> new CompressParameters(MAXIMUM_OBJECT_STREAM_SIZE);
+        };
+    }
+
+    /**
+     * Speichert das Dokument vollständig mit der gewünschten Kompression.
+     */
+    public static void save(PDDocument document, OutputStream out, Compression compression) throws IOException {
+        if (compression == Compression.MAXIMUM) {
+            compressUnfilteredStreams(document);
+        }
+        document.save(out, parameters(compression));
+    }
+
+    /**
+     * Komprimiert Seiteninhalte, Form-XObjects der Seiten und Erscheinungsbilder der Annotationen,
+     * die noch ohne Filter vorliegen. PDFBox erzeugt Appearance Streams beim Füllen unkomprimiert.
+     */
+    static void compressUnfilteredStreams(PDDocument document) throws IOException {
+        for (PDPage page : document.getPages()) {
+            Iterator<PDStream> contents = page.getContentStreams();
+            while (contents.hasNext()) {
+                flate(contents.next().getCOSObject());
+            }
+
+            PDResources resources = page.getResources();
+            if (resources != null) {
+                for (COSName name : resources.getXObjectNames()) {
+                    PDXObject xObject = resources.getXObject(name);
+                    if (xObject != null && COSName.FORM.equals(xObject.getCOSObject().getCOSName(COSName.SUBTYPE))) {
+                        flate(xObject.getCOSObject());
+                    }
+                }
+            }
+
+            for (PDAnnotation annotation : page.getAnnotations()) {
+                PDAppearanceDictionary appearance = annotation.getAppearance();
+                PDAppearanceEntry normal = appearance != null ? appearance.getNormalAppearance() : null;
+                if (normal == null) {
+                    continue;
+                }
+                if (normal.isStream()) {
+                    flate(normal.getAppearanceStream().getCOSObject());
+                } else {
+                    for (PDAppearanceStream stream : normal.getSubDictionary().values()) {
+                        flate(stream.getCOSObject());
+                    }
+                }
+            }
+        }
+    }
+
+    private static void flate(COSStream stream) throws IOException {
+        if (stream.getFilters() != null) {
+            return;
+        }
+        byte[] data;
+        try (InputStream in = stream.createInputStream()) {
+            data = in.readAllBytes();
+        }
+        try (OutputStream out = stream.createOutputStream(COSName.FLATE_DECODE)) {
+            out.write(data);
+        }
+    }
+}
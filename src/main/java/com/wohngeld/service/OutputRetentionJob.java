@@ -0,0 +1,109 @@
+package com.wohngeld.service;
+
+import com.wohngeld.entity.StoredPdf;
+import com.wohngeld.repository.StoredPdfRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Räumt das Ausgabeverzeichnis im Hintergrund auf: Einträge älter als
+ * {@code wohngeld.output.retention.max-age} werden gelöscht; liegt der belegte Platz danach noch über
+ * {@code wohngeld.output.retention.max-bytes}, werden die ältesten Einträge verdrängt, bis er darunter liegt.
+ * Ein Inhalt verschwindet erst, wenn kein Dateiname mehr auf ihn zeigt.
+ */
+@Component
+@Slf4j
+public class OutputRetentionJob {
+
+    private static final Duration STALE_TEMP_FILES = Duration.ofHours(1);
+
+    private final PdfStorageService storageService;
+    private final StoredPdfRepository storedPdfRepository;
+    private final Duration maxAge;
+    private final long maxBytes;
+
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final Counter evicted;
+
+    public OutputRetentionJob(PdfStorageService storageService,
+                              StoredPdfRepository storedPdfRepository,
+                              @Value("${wohngeld.output.retention.max-age:P30D}") Duration maxAge,
+                              @Value("${wohngeld.output.retention.max-bytes:10737418240}") long maxBytes,
+                              MeterRegistry meterRegistry) {
+        this.storageService = storageService;
+        this.storedPdfRepository = storedPdfRepository;
+        this.maxAge = maxAge;
+        this.maxBytes = maxBytes;
+
+        this.evicted = Counter.builder("wohngeld.output.evicted")
+                .description("Von der Aufbewahrung gelöschte PDF-Einträge")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.output.bytes", storedBytes, AtomicLong::get)
+                .description("Belegter Platz im Ausgabeverzeichnis beim letzten Aufräumen")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${wohngeld.output.retention.initial-delay:PT1M}",
+            fixedDelayString = "${wohngeld.output.retention.interval:PT10M}")
+    public void run() {
+        try {
+            long start = System.nanoTime();
+            int expired = deleteOlderThan(LocalDateTime.now().minus(maxAge));
+            int displaced = shrinkToMaxBytes();
+            int temp = storageService.deleteStaleTempFiles(LocalDateTime.now().minus(STALE_TEMP_FILES));
+
+            if (expired + displaced + temp > 0) {
+                log.info("Aufbewahrung: {} abgelaufen, {} verdrängt, {} Temp-Dateien, belegt {} Bytes ({} ms)",
+                        expired, displaced, temp, storedBytes.get(), (System.nanoTime() - start) / 1_000_000);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Aufräumen des Ausgabeverzeichnisses fehlgeschlagen: {}", e.getMessage());
+        }
+    }
+
+    private int deleteOlderThan(LocalDateTime cutoff) throws IOException {
+        int deleted = 0;
+        List<StoredPdf> batch;
+        do {
+            batch = storedPdfRepository.findTop500ByCreatedAtBeforeOrderByCreatedAt(cutoff);
+            for (StoredPdf stored : batch) {
+                storageService.delete(stored);
+                deleted++;
+            }
+        } while (!batch.isEmpty());
+        evicted.increment(deleted);
+        return deleted;
+    }
+
+    private int shrinkToMaxBytes() throws IOException {
+        long bytes = storedPdfRepository.sumDistinctContentBytes();
+        int deleted = 0;
+        while (bytes > maxBytes) {
+            List<StoredPdf> batch = storedPdfRepository.findTop500ByOrderByCreatedAt();
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (StoredPdf stored : batch) {
+                bytes -= storageService.delete(stored);
+                deleted++;
+                if (bytes <= maxBytes) {
+                    break;
+                }
+            }
+        }
+        storedBytes.set(bytes);
+        evicted.increment(deleted);
+        return deleted;
+    }
+}
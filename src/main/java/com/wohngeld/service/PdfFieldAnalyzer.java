@@ -1,6 +1,7 @@
 // java
 package com.wohngeld.service;
 
+import com.wohngeld.util.KeywordAutomaton;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -25,6 +27,55 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PdfFieldAnalyzer {
 
+    /**
+     * Alle Stichwörter aus {@link #determineCategory} und {@link #determineValueForField}, einmal als
+     * Automat übersetzt: ein Feldname wird in einem Durchlauf klassifiziert statt mit einer
+     * {@code contains}-Suche pro Stichwort. Neue Stichwörter in den Regeln müssen hier ergänzt werden;
+     * fehlt eines, wirft der Automat bei der ersten Abfrage, und {@code PdfFieldAnalyzerTest} vergleicht
+     * alle Regeln mit der linearen Suche.
+     */
+    private static final KeywordAutomaton KEYWORDS = KeywordAutomaton.of(List.of(
+            // Kategorien
+            "behörde", "behoerde", "dienststelle", "amt", "wohngeldbehörde",
+            "erstantrag", "weiterleistung", "folgeantrag", "aktenzeichen", "wohngeldnummer", "antragsdatum",
+            "name", "vorname", "nachname", "familienname", "geburt", "geschlecht", "männlich", "weiblich",
+            "divers", "familienstand", "ledig", "verheiratet", "geschieden", "verwitwet",
+            "straße", "strasse", "hausnummer", "hausnr", "plz", "postleitzahl", "ort", "stadt", "wohnort",
+            "anschrift", "adresse",
+            "wohnung", "wohnfläche", "wohnflaeche", "zimmer", "räume", "einzug", "bezug", "baujahr",
+            "vermieter", "mieter",
+            "miete", "kaltmiete", "warmmiete", "nebenkosten", "heizkosten", "betriebskosten",
+            "einkommen", "verdienst", "gehalt", "lohn", "brutto", "netto", "rente", "kindergeld", "unterhalt",
+            "erwerbstätig", "erwerbstaetig", "arbeitslos", "rentner", "student", "schüler", "schueler",
+            "selbständig", "selbststaendig",
+            "iban", "bic", "bank", "konto", "kreditinstitut",
+            "ja", "nein", "yes", "no",
+            // Empfohlene Werte
+            "bezeichnung", "datum", "wohngeld ab", "ab datum", "leistung ab", "bewilligung ab",
+            "weiter", "folge", "maennlich", "getrennt", "lebenspartner", "nicht",
+            "geburts", "geburtsdatum", "geb.datum", "geboren am", "geburtsort", "geb.ort",
+            "staatsangehörigkeit", "staatsangehoerigkeit", "nationalität", "telefon", "tel.", "email", "e-mail",
+            "str.", "nr", "haus-nr", "nr.", "eingezogen", "seit wann", "qm", "größe", "raeume", "anzahl",
+            "grundmiete", "miete ohne", "heizung", "art", "warmwasser", "gesamtmiete", "miete gesamt", "insgesamt",
+            "geldinstitut", "kontoinhaber", "person", "haushalt"));
+
+    private final Function<String, KeywordAutomaton.Matches> keywords;
+
+    public PdfFieldAnalyzer() {
+        this(KEYWORDS::match);
+    }
+
+    private PdfFieldAnalyzer(Function<String, KeywordAutomaton.Matches> keywords) {
+        this.keywords = keywords;
+    }
+
+    /**
+     * Analysator mit der früheren linearen Stichwortsuche; nur als Referenz für Vergleiche.
+     */
+    static PdfFieldAnalyzer withLinearScan() {
+        return new PdfFieldAnalyzer(KeywordAutomaton::scan);
+    }
+
     @Data
     public static class FieldInfo {
         private String fullName;
@@ -51,38 +102,51 @@ public class PdfFieldAnalyzer {
      * Analysiert die PDF und gibt eine strukturierte Analyse zurück.
      */
     public AnalysisResult analyzePdf(String pdfPath) throws IOException {
+        try (PDDocument document = Loader.loadPDF(new File(pdfPath))) {
+            return analyzeDocument(document);
+        }
+    }
+
+    /**
+     * Analysiert eine bereits im Speicher liegende PDF (z.B. aus dem {@link TemplateCache}).
+     */
+    public AnalysisResult analyzePdf(byte[] pdfContent) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdfContent)) {
+            return analyzeDocument(document);
+        }
+    }
+
+    private AnalysisResult analyzeDocument(PDDocument document) {
         AnalysisResult result = new AnalysisResult();
 
-        try (PDDocument document = Loader.loadPDF(new File(pdfPath))) {
-            PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
+        PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
 
-            if (acroForm == null) {
-                log.warn("Keine AcroForm gefunden");
-                return result;
-            }
+        if (acroForm == null) {
+            log.warn("Keine AcroForm gefunden");
+            return result;
+        }
 
-            // Alle Felder sammeln und analysieren
-            for (PDField field : acroForm.getFieldTree()) {
-                FieldInfo info = analyzeField(field);
-                result.getAllFields().add(info);
+        // Alle Felder sammeln und analysieren
+        for (PDField field : acroForm.getFieldTree()) {
+            FieldInfo info = analyzeField(field);
+            result.getAllFields().add(info);
 
-                // Nach Kategorie gruppieren
-                result.getByCategory()
-                        .computeIfAbsent(info.getCategory(), k -> new ArrayList<>())
-                        .add(info);
+            // Nach Kategorie gruppieren
+            result.getByCategory()
+                    .computeIfAbsent(info.getCategory(), k -> new ArrayList<>())
+                    .add(info);
 
-                // Nach Abschnitt gruppieren
-                if (info.getSectionNumber() > 0) {
-                    result.getBySection()
-                            .computeIfAbsent(info.getSectionNumber(), k -> new ArrayList<>())
-                            .add(info);
-                }
+            // Nach Abschnitt gruppieren
+            if (info.getSectionNumber() > 0) {
+                result.getBySection()
+                        .computeIfAbsent(info.getSectionNumber(), k -> new ArrayList<>())
+                        .add(info);
             }
-
-            // Empfohlenes Mapping erstellen
-            result.setRecommendedMapping(createRecommendedMapping(result.getAllFields()));
         }
 
+        // Empfohlenes Mapping erstellen
+        result.setRecommendedMapping(createRecommendedMapping(result.getAllFields()));
+
         log.info("PDF analysiert: {} Felder gefunden", result.getAllFields().size());
         return result;
     }
@@ -91,14 +155,22 @@ public class PdfFieldAnalyzer {
      * Analysiert ein einzelnes Feld und extrahiert Metadaten.
      */
     private FieldInfo analyzeField(PDField field) {
-        FieldInfo info = new FieldInfo();
-        info.setFullName(field.getFullyQualifiedName());
-        info.setType(field.getClass().getSimpleName());
-        // Aufruf angepasst
-        info.setCheckbox(field instanceof PDCheckBox);
+        FieldInfo info = classify(field.getFullyQualifiedName(), field.getClass().getSimpleName(),
+                field instanceof PDCheckBox);
         info.setCurrentValue(field.getValueAsString());
+        return info;
+    }
 
-        String name = field.getFullyQualifiedName().toLowerCase();
+    /**
+     * Klassifiziert ein Feld allein anhand von Name, Typ und Checkbox-Eigenschaft.
+     */
+    FieldInfo classify(String fullName, String type, boolean checkbox) {
+        FieldInfo info = new FieldInfo();
+        info.setFullName(fullName);
+        info.setType(type);
+        info.setCheckbox(checkbox);
+
+        String name = fullName.toLowerCase();
         info.setShortName(extractShortName(name));
 
         // Abschnitt erkennen (z.B. "A.", "B.", "1.", "2." etc.)
@@ -108,7 +180,7 @@ public class PdfFieldAnalyzer {
         info.setPersonNumber(extractPersonNumber(name));
 
         // Kategorie bestimmen
-        info.setCategory(determineCategory(name));
+        info.setCategory(determineCategory(keywords.apply(name)));
 
         return info;
     }
@@ -154,7 +226,7 @@ public class PdfFieldAnalyzer {
         return 0;
     }
 
-    private String determineCategory(String name) {
+    private String determineCategory(KeywordAutomaton.Matches name) {
         // Behörde
         if (containsAny(name, "behörde", "behoerde", "dienststelle", "amt", "wohngeldbehörde")) {
             return "BEHOERDE";
@@ -236,10 +308,10 @@ public class PdfFieldAnalyzer {
     }
 
     /**
-     * Bestimmt den passenden Dummy-Wert für ein Feld.
+     * Bestimmt den passenden Dummy-Wert für ein Feld ({@code null}: Feld nicht setzen).
      */
-    private String determineValueForField(FieldInfo field) {
-        String name = field.getFullName().toLowerCase();
+    String determineValueForField(FieldInfo field) {
+        KeywordAutomaton.Matches name = keywords.apply(field.getFullName().toLowerCase());
         int person = field.getPersonNumber();
 
         // Nur Person 1 (Antragsteller) ausfüllen
@@ -412,13 +484,8 @@ public class PdfFieldAnalyzer {
         return null;
     }
 
-    private boolean containsAny(String text, String... keywords) {
-        for (String keyword : keywords) {
-            if (text.contains(keyword.toLowerCase())) {
-                return true;
-            }
-        }
-        return false;
+    private boolean containsAny(KeywordAutomaton.Matches text, String... keywords) {
+        return text.containsAny(keywords);
     }
 
     /**
@@ -4,7 +4,9 @@ import com.wohngeld.model.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,12 +25,162 @@ import java.util.Map;
 public class PdfFieldMapper {
 
     /**
-     * Creates a complete field mapping from the request data.
-     * Returns a map of PDF field name -> value to set.
+     * Constant cost checkboxes of the Miete section - typically Nein.
      */
-    public Map<String, Object> createFieldMapping(WohngeldAntragRequest request) {
-        Map<String, Object> fields = new LinkedHashMap<>();
+    private static final FieldDefaults MIETE_DEFAULTS = new FieldDefaults(fields -> {
+        // Garage/Parking - typically Nein
+        fields.put("MZ1.3-CB_MonatMieteGarageNein", true);
+        fields.put("MZ1.3-CB_MonatMieteGarageJa", false);
+        fields.put("MZ1.3-CB_MonatMieteGarageJaGesond", false);
+
+        // Service charges - typically Nein
+        fields.put("MZ1.3-CB_MonatMieteServiceNein", true);
+        fields.put("MZ1.3-CB_MonatMieteServiceJa", false);
+        fields.put("MZ1.3-CB_MonatMieteServiceJaGesond", false);
+
+        // Household energy - typically Nein
+        fields.put("MZ1.3-CB_MonatMieteHaushaltsenergieNein", true);
+        fields.put("MZ1.3-CB_MonatMieteHaushaltsenergieJa", false);
+        fields.put("MZ1.3-CB_MonatMieteHaushaltsenergieJaGesond", false);
+
+        // Rent change expected - default Nein
+        fields.put("MZ1.3-CB_MieteVerändNein", true);
+        fields.put("MZ1.3-CB_MieteVerändJaVerringern", false);
+        fields.put("MZ1.3-CB_MieteVerändJaErhöhen", false);
+
+        // Third party payments - default Nein
+        fields.put("MZ1.3-CB_MieteDritteNein", true);
+        fields.put("MZ1.3-CB_MieteDritteJa", false);
+        fields.put("MZ1.3-CB_MieteAnderePersNein", true);
+        fields.put("MZ1.3-CB_MieteAnderePersJa", false);
+    });
+
+    /**
+     * Constant answers of the additional questions - default Nein.
+     */
+    private static final FieldDefaults ZUSATZFRAGEN_DEFAULTS = new FieldDefaults(fields -> {
+        // Question 4: Other apartment receiving Wohngeld - default Nein
+        fields.put("MZ1.3-CB_WohnungAndereWohnungNein", true);
+        fields.put("MZ1.3-CB_WohnungAndereWohnungJa", false);
+
+        // Question 5: Secondary residence - default Nein
+        fields.put("MZ1.3-CB_WohnungZweitwohnsitzNein", true);
+        fields.put("MZ1.3-CB_WohnungZweitwohnsitzJa", false);
+
+        // Question 8: Household member deceased - default Nein
+        fields.put("MZ1.3-CB_VerändHHMTodNein", true);
+        fields.put("MZ1.3-CB_VerändHHMTodJa", false);
+        fields.put("MZ1.3-CB_VerändHHMVerstorbenNein", true);
+        fields.put("MZ1.3-CB_VerändHHMVerstorbenJa", false);
+
+        // Question 9: Household size change - default Nein
+        fields.put("MZ1.3-CB_VerändHHMAnzahlNein", true);
+        fields.put("MZ1.3-CB_VerändHHMAnzahlJa", false);
+
+        // Question 10: Transfer payments - default Nein
+        fields.put("MZ1.3-CB_TransfLeistungNein", true);
+        fields.put("MZ1.3-CB_TransfLeistungJa", false);
+
+        // Question 11: Asked to apply - default Nein
+        fields.put("MZ1.3-CB_TransfWohngeldBeantragenNein", true);
+        fields.put("MZ1.3-CB_TransfWohngeldBeantragenJa", false);
+
+        // Question 13: Werbungskosten - default Nein
+        fields.put("MZ1.3-CB_FreiBWerbNein", true);
+        fields.put("MZ1.3-CB_FreiBWerbJa", false);
+
+        // Question 14: Kinderbetreuungskosten - default Nein
+        fields.put("MZ1.3-CB_FreiBKinderbetreuNein", true);
+        fields.put("MZ1.3-CB_FreiBKinderbetreuJa", false);
+
+        // Question 15: Schwerbehinderung/Pflegegrad - default Nein
+        fields.put("MZ1.3-CB_FreiBSchwerBeNein", true);
+        fields.put("MZ1.3-CB_FreiBSchwerBeJa", false);
+
+        // Question 16: Unterhalt (maintenance payments) - default Nein
+        fields.put("MZ1.3-CB_FreiBUnterhNein", true);
+        fields.put("MZ1.3-CB_FreiBUnterhJa", false);
+
+        // Question 17: Unterhalt claims not enforced - default Nein
+        fields.put("MZ1.3-CB_SonstEinUnterhNein", true);
+        fields.put("MZ1.3-CB_SonstEinUnterhJa", false);
+
+        // Question 18: One-time income - default Nein
+        fields.put("MZ1.3-CB_SonstEinEinmNein", true);
+        fields.put("MZ1.3-CB_SonstEinEinmJa", false);
+
+        // Question 19: Income changes expected - default Nein
+        fields.put("MZ1.3-CB_SonstEinErhNein", true);
+        fields.put("MZ1.3-CB_SonstEinErhJaVer", false);
+        fields.put("MZ1.3-CB_SonstEinErhJaErh", false);
+
+        // Question 20: Assets over threshold - default Nein
+        fields.put("MZ1.3-CB_SonstEinVermögenNein", true);
+        fields.put("MZ1.3-CB_SonstEinVermögenJa", false);
+
+        // Question 6: Third party paying costs - default Nein
+        fields.put("MZ1.3-CB_DrittStaatKostentragenNein", true);
+        fields.put("MZ1.3-CB_DrittStaatKostentragenJa", false);
+
+        // Question 7: Additional persons in household - default Nein
+        fields.put("MZ1.3-CB_WeiterePersonenNein", true);
+        fields.put("MZ1.3-CB_WeiterePersonenJa", false);
+
+        // Commercial use of living space - default unchecked
+        fields.put("MZ1.3-CB_NutzWohnraumBeruflich", false);
+        fields.put("MZ1.3-CB_NutzWohnraumAndPersÜberlassen", false);
+        fields.put("MZ1.3-CB_NutzWohnraumAndPersEntgeltlich", false);
+
+        // Consent checkbox (Question 31)
+        fields.put("MZ1.3-CB_HinweisAbfrage", true);
+    });
+
+    private static final int MAX_EINNAHMEN = 4;
+    private static final int IBAN_LENGTH = 33;
+
+    // Precomputed indexed field names, so the loops below do not concatenate per request
+    private static final String[] EINNAHME_ART = indexedFieldNames("MZ1.3-ET_EinnahmeHHM1Art", "", MAX_EINNAHMEN);
+    private static final String[] EINNAHME_BRUTTO = indexedFieldNames("MZ1.3-ET_EinnahmeHHM1Art", "Brutto", MAX_EINNAHMEN);
+    private static final String[] EINNAHME_TURNUS = indexedFieldNames("MZ1.3-ET_EinnahmeHHM1Art", "Turnus", MAX_EINNAHMEN);
+    private static final String[] IBAN_CHARS = indexedFieldNames("MZ1.3-AN_IBAN", "", IBAN_LENGTH);
+
+    /**
+     * Fixed slot layout of all PDF field names this mapper can write, in mapping order.
+     * Determined once by mapping a probe request that takes every optional branch.
+     * A field the probe misses would fail every fill that writes it; PdfFieldMapperTest maps
+     * every branch and checks that the layout covers it, so extend both when adding fields.
+     */
+    private final FieldLayout layout;
+
+    public PdfFieldMapper() {
+        Map<String, Object> probe = new LinkedHashMap<>();
+        mapRequest(probe::put, probeRequest());
+        this.layout = new FieldLayout(probe.keySet());
+    }
+
+    /**
+     * Returns every PDF field name this mapper can produce.
+     * Used to build the per-template field index up front.
+     */
+    public List<String> getFieldNames() {
+        return layout.getFieldNames();
+    }
+
+    public FieldLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Creates the compiled fill plan from the request data.
+     * Values are written into the fixed slots of {@link #getLayout()}.
+     */
+    public FillPlan createFillPlan(WohngeldAntragRequest request) {
+        FillPlan plan = layout.newPlan();
+        mapRequest(plan, request);
+        return plan;
+    }
 
+    void mapRequest(FieldSink fields, WohngeldAntragRequest request) {
         mapAntragsdaten(fields, request.getAntrag());
         mapAntragsteller(fields, request.getAntragsteller());
         mapAdresse(fields, request.getAdresse());
@@ -37,11 +189,9 @@ public class PdfFieldMapper {
         mapEinkommen(fields, request.getAntragsteller(), request.getEinkommen());
         mapBankverbindung(fields, request.getBankverbindung(), request.getAntragsteller(), request.getAdresse());
         mapZusatzfragen(fields, request);
-
-        return fields;
     }
 
-    private void mapAntragsdaten(Map<String, Object> fields, AntragDaten antrag) {
+    private void mapAntragsdaten(FieldSink fields, AntragDaten antrag) {
         if (antrag == null) return;
 
         // Application type checkboxes
@@ -55,7 +205,7 @@ public class PdfFieldMapper {
         }
     }
 
-    private void mapAntragsteller(Map<String, Object> fields, Antragsteller a) {
+    private void mapAntragsteller(FieldSink fields, Antragsteller a) {
         if (a == null) return;
 
         // Personal information
@@ -95,7 +245,7 @@ public class PdfFieldMapper {
         fields.put("MZ1.3-CB_PersAngErwerbNichterwerbsperson", "nichterwerbsperson".equals(erwerbsstatus));
     }
 
-    private void mapAdresse(Map<String, Object> fields, Adresse adr) {
+    private void mapAdresse(FieldSink fields, Adresse adr) {
         if (adr == null) return;
 
         // Current address (Wohnung)
@@ -105,7 +255,7 @@ public class PdfFieldMapper {
         fields.put("MZ1.3-ET_WohnungAnschriftWohnort", adr.getOrt());
     }
 
-    private void mapWohnung(Map<String, Object> fields, Wohnung w) {
+    private void mapWohnung(FieldSink fields, Wohnung w) {
         if (w == null) return;
 
         // Housing size
@@ -136,7 +286,7 @@ public class PdfFieldMapper {
         fields.put("MZ1.3-CB_WohnungGefördertJa", gefoerdert);
     }
 
-    private void mapMiete(Map<String, Object> fields, Miete m) {
+    private void mapMiete(FieldSink fields, Miete m) {
         if (m == null) return;
 
         // Total rent
@@ -162,34 +312,10 @@ public class PdfFieldMapper {
             fields.put("MZ1.3-ET_MonatMieteWarmwasserBetrag", formatCurrency(m.getWarmwasser()));
         }
 
-        // Garage/Parking - typically Nein
-        fields.put("MZ1.3-CB_MonatMieteGarageNein", true);
-        fields.put("MZ1.3-CB_MonatMieteGarageJa", false);
-        fields.put("MZ1.3-CB_MonatMieteGarageJaGesond", false);
-
-        // Service charges - typically Nein
-        fields.put("MZ1.3-CB_MonatMieteServiceNein", true);
-        fields.put("MZ1.3-CB_MonatMieteServiceJa", false);
-        fields.put("MZ1.3-CB_MonatMieteServiceJaGesond", false);
-
-        // Household energy - typically Nein
-        fields.put("MZ1.3-CB_MonatMieteHaushaltsenergieNein", true);
-        fields.put("MZ1.3-CB_MonatMieteHaushaltsenergieJa", false);
-        fields.put("MZ1.3-CB_MonatMieteHaushaltsenergieJaGesond", false);
-
-        // Rent change expected - default Nein
-        fields.put("MZ1.3-CB_MieteVerändNein", true);
-        fields.put("MZ1.3-CB_MieteVerändJaVerringern", false);
-        fields.put("MZ1.3-CB_MieteVerändJaErhöhen", false);
-
-        // Third party payments - default Nein
-        fields.put("MZ1.3-CB_MieteDritteNein", true);
-        fields.put("MZ1.3-CB_MieteDritteJa", false);
-        fields.put("MZ1.3-CB_MieteAnderePersNein", true);
-        fields.put("MZ1.3-CB_MieteAnderePersJa", false);
+        fields.putDefaults(MIETE_DEFAULTS);
     }
 
-    private void mapEinkommen(Map<String, Object> fields, Antragsteller a, Einkommen e) {
+    private void mapEinkommen(FieldSink fields, Antragsteller a, Einkommen e) {
         if (a == null) return;
 
         // Income section - HHM1 = Household Member 1 = Applicant
@@ -199,12 +325,11 @@ public class PdfFieldMapper {
         if (e != null) {
             // Income type and amounts (up to 4 entries)
             if (e.getEinnahmen() != null && !e.getEinnahmen().isEmpty()) {
-                for (int i = 0; i < Math.min(4, e.getEinnahmen().size()); i++) {
+                for (int i = 0; i < Math.min(MAX_EINNAHMEN, e.getEinnahmen().size()); i++) {
                     Einnahme einnahme = e.getEinnahmen().get(i);
-                    int num = i + 1;
-                    fields.put("MZ1.3-ET_EinnahmeHHM1Art" + num, einnahme.getArt());
-                    fields.put("MZ1.3-ET_EinnahmeHHM1Art" + num + "Brutto", formatCurrency(einnahme.getBruttoBetrag()));
-                    fields.put("MZ1.3-ET_EinnahmeHHM1Art" + num + "Turnus", normalizeTurnus(einnahme.getTurnus()));
+                    fields.put(EINNAHME_ART[i], einnahme.getArt());
+                    fields.put(EINNAHME_BRUTTO[i], formatCurrency(einnahme.getBruttoBetrag()));
+                    fields.put(EINNAHME_TURNUS[i], normalizeTurnus(einnahme.getTurnus()));
                 }
             } else {
                 // Fallback to old model fields
@@ -222,7 +347,7 @@ public class PdfFieldMapper {
         }
     }
 
-    private void mapBankverbindung(Map<String, Object> fields, Bankverbindung b, Antragsteller a, Adresse adr) {
+    private void mapBankverbindung(FieldSink fields, Bankverbindung b, Antragsteller a, Adresse adr) {
         if (b == null) return;
 
         // Payment to me checkbox
@@ -234,8 +359,8 @@ public class PdfFieldMapper {
         if (iban != null) {
             // Remove spaces
             iban = iban.replaceAll("\\s", "");
-            for (int i = 0; i < Math.min(33, iban.length()); i++) {
-                fields.put("MZ1.3-AN_IBAN" + (i + 1), String.valueOf(iban.charAt(i)));
+            for (int i = 0; i < Math.min(IBAN_LENGTH, iban.length()); i++) {
+                fields.put(IBAN_CHARS[i], String.valueOf(iban.charAt(i)));
             }
         }
 
@@ -254,84 +379,33 @@ public class PdfFieldMapper {
         }
     }
 
-    private void mapZusatzfragen(Map<String, Object> fields, WohngeldAntragRequest request) {
-        // Question 4: Other apartment receiving Wohngeld - default Nein
-        fields.put("MZ1.3-CB_WohnungAndereWohnungNein", true);
-        fields.put("MZ1.3-CB_WohnungAndereWohnungJa", false);
-
-        // Question 5: Secondary residence - default Nein
-        fields.put("MZ1.3-CB_WohnungZweitwohnsitzNein", true);
-        fields.put("MZ1.3-CB_WohnungZweitwohnsitzJa", false);
-
-        // Question 8: Household member deceased - default Nein
-        fields.put("MZ1.3-CB_VerändHHMTodNein", true);
-        fields.put("MZ1.3-CB_VerändHHMTodJa", false);
-        fields.put("MZ1.3-CB_VerändHHMVerstorbenNein", true);
-        fields.put("MZ1.3-CB_VerändHHMVerstorbenJa", false);
-
-        // Question 9: Household size change - default Nein
-        fields.put("MZ1.3-CB_VerändHHMAnzahlNein", true);
-        fields.put("MZ1.3-CB_VerändHHMAnzahlJa", false);
-
-        // Question 10: Transfer payments - default Nein
-        fields.put("MZ1.3-CB_TransfLeistungNein", true);
-        fields.put("MZ1.3-CB_TransfLeistungJa", false);
-
-        // Question 11: Asked to apply - default Nein
-        fields.put("MZ1.3-CB_TransfWohngeldBeantragenNein", true);
-        fields.put("MZ1.3-CB_TransfWohngeldBeantragenJa", false);
-
-        // Question 13: Werbungskosten - default Nein
-        fields.put("MZ1.3-CB_FreiBWerbNein", true);
-        fields.put("MZ1.3-CB_FreiBWerbJa", false);
-
-        // Question 14: Kinderbetreuungskosten - default Nein
-        fields.put("MZ1.3-CB_FreiBKinderbetreuNein", true);
-        fields.put("MZ1.3-CB_FreiBKinderbetreuJa", false);
-
-        // Question 15: Schwerbehinderung/Pflegegrad - default Nein
-        fields.put("MZ1.3-CB_FreiBSchwerBeNein", true);
-        fields.put("MZ1.3-CB_FreiBSchwerBeJa", false);
-
-        // Question 16: Unterhalt (maintenance payments) - default Nein
-        fields.put("MZ1.3-CB_FreiBUnterhNein", true);
-        fields.put("MZ1.3-CB_FreiBUnterhJa", false);
-
-        // Question 17: Unterhalt claims not enforced - default Nein
-        fields.put("MZ1.3-CB_SonstEinUnterhNein", true);
-        fields.put("MZ1.3-CB_SonstEinUnterhJa", false);
-
-        // Question 18: One-time income - default Nein
-        fields.put("MZ1.3-CB_SonstEinEinmNein", true);
-        fields.put("MZ1.3-CB_SonstEinEinmJa", false);
-
-        // Question 19: Income changes expected - default Nein
-        fields.put("MZ1.3-CB_SonstEinErhNein", true);
-        fields.put("MZ1.3-CB_SonstEinErhJaVer", false);
-        fields.put("MZ1.3-CB_SonstEinErhJaErh", false);
-
-        // Question 20: Assets over threshold - default Nein
-        fields.put("MZ1.3-CB_SonstEinVermögenNein", true);
-        fields.put("MZ1.3-CB_SonstEinVermögenJa", false);
-
-        // Question 6: Third party paying costs - default Nein
-        fields.put("MZ1.3-CB_DrittStaatKostentragenNein", true);
-        fields.put("MZ1.3-CB_DrittStaatKostentragenJa", false);
-
-        // Question 7: Additional persons in household - default Nein
-        fields.put("MZ1.3-CB_WeiterePersonenNein", true);
-        fields.put("MZ1.3-CB_WeiterePersonenJa", false);
+    private void mapZusatzfragen(FieldSink fields, WohngeldAntragRequest request) {
+        fields.putDefaults(ZUSATZFRAGEN_DEFAULTS);
+    }
 
-        // Commercial use of living space - default unchecked
-        fields.put("MZ1.3-CB_NutzWohnraumBeruflich", false);
-        fields.put("MZ1.3-CB_NutzWohnraumAndPersÜberlassen", false);
-        fields.put("MZ1.3-CB_NutzWohnraumAndPersEntgeltlich", false);
+    // Helper methods
 
-        // Consent checkbox (Question 31)
-        fields.put("MZ1.3-CB_HinweisAbfrage", true);
+    private static String[] indexedFieldNames(String prefix, String suffix, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = prefix + (i + 1) + suffix;
+        }
+        return names;
     }
 
-    // Helper methods
+    private static WohngeldAntragRequest probeRequest() {
+        return WohngeldAntragRequest.builder()
+            .antrag(AntragDaten.builder().erstantrag(false).wohngeldnummer("").build())
+            .antragsteller(Antragsteller.builder().build())
+            .adresse(Adresse.builder().build())
+            .wohnung(Wohnung.builder().wohnflaecheQm(1.0).einzugsdatum("").build())
+            .miete(Miete.builder().gesamtmiete(1.0).heizkosten(1.0).warmwasser(1.0).build())
+            .einkommen(Einkommen.builder()
+                .einnahmen(Collections.nCopies(MAX_EINNAHMEN, Einnahme.builder().bruttoBetrag(1.0).build()))
+                .build())
+            .bankverbindung(Bankverbindung.builder().iban("X".repeat(IBAN_LENGTH)).build())
+            .build();
+    }
 
     private String normalizeValue(String value) {
         if (value == null) return null;
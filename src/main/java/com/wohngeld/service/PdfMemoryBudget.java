@@ -0,0 +1,131 @@
+package com.wohngeld.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Globales Speicherbudget für die Stromdaten der PDF-Verarbeitung.
+ *
+ * Jedes geöffnete Dokument reserviert vor dem Laden einen festen Anteil des Budgets und darf so viel
+ * Stromdaten (neue Appearance Streams, geänderte Inhalte) im Heap halten; darüber hinaus schreibt
+ * PDFBox in eine Scratch-Datei. Ist das Budget ausgeschöpft, läuft das Dokument vollständig über
+ * Scratch-Dateien, statt den Heap mit jeder weiteren gleichzeitigen Anfrage wachsen zu lassen.
+ */
+@Component
+@Slf4j
+public class PdfMemoryBudget {
+
+    private final long budgetBytes;
+    private final long perDocumentBytes;
+    private final Path scratchDirectory;
+
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicInteger activeLeases = new AtomicInteger();
+    private final Counter spilled;
+
+    public PdfMemoryBudget(@Value("${wohngeld.pdf.memory.budget-bytes:268435456}") long budgetBytes,
+                           @Value("${wohngeld.pdf.memory.per-document-bytes:8388608}") long perDocumentBytes,
+                           @Value("${wohngeld.pdf.memory.scratch-directory:${java.io.tmpdir}/wohngeld-scratch}")
+                           String scratchDirectory,
+                           MeterRegistry meterRegistry) {
+        this.budgetBytes = budgetBytes;
+        this.perDocumentBytes = perDocumentBytes;
+        this.scratchDirectory = Path.of(scratchDirectory);
+
+        try {
+            Files.createDirectories(this.scratchDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Scratch-Verzeichnis kann nicht angelegt werden: " + scratchDirectory, e);
+        }
+
+        this.spilled = Counter.builder("wohngeld.pdf.memory.spilled")
+                .description("Dokumente, die mangels Budget vollständig über Scratch-Dateien liefen")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.memory.reserved", reservedBytes, AtomicLong::get)
+                .description("Reservierter Heap für PDF-Stromdaten in Bytes")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.memory.budget", this, budget -> budget.budgetBytes)
+                .description("Globales Budget für PDF-Stromdaten in Bytes")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.pdf.memory.documents", activeLeases, AtomicInteger::get)
+                .description("Geöffnete Dokumente mit Budget-Reservierung oder Scratch-Datei")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserviert Budget für ein Dokument. Die Reservierung muss mit {@link Lease#close()} freigegeben werden.
+     */
+    public Lease acquire() {
+        activeLeases.incrementAndGet();
+        long reserved = reservedBytes.get();
+        while (reserved + perDocumentBytes <= budgetBytes) {
+            if (reservedBytes.compareAndSet(reserved, reserved + perDocumentBytes)) {
+                MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(perDocumentBytes)
+                        .setTempDir(scratchDirectory.toFile());
+                return new Lease(setting.streamCache, perDocumentBytes);
+            }
+            reserved = reservedBytes.get();
+        }
+
+        spilled.increment();
+        log.debug("PDF-Speicherbudget ausgeschöpft ({} / {} Bytes), Dokument läuft über Scratch-Datei",
+                reserved, budgetBytes);
+        return new Lease(tempFileOnly(), 0);
+    }
+
+    /**
+     * Stromdaten ausschließlich in Scratch-Dateien, z.B. für große Sammeldokumente.
+     */
+    public StreamCacheCreateFunction tempFileOnly() {
+        return MemoryUsageSetting.setupTempFileOnly().setTempDir(scratchDirectory.toFile()).streamCache;
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * Reservierung eines Dokuments; gibt ihr Budget beim Schließen zurück.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final StreamCacheCreateFunction streamCache;
+        private final long bytes;
+        private boolean closed;
+
+        private Lease(StreamCacheCreateFunction streamCache, long bytes) {
+            this.streamCache = streamCache;
+            this.bytes = bytes;
+        }
+
+        public StreamCacheCreateFunction getStreamCache() {
+            return streamCache;
+        }
+
+        public boolean isSpilled() {
+            return bytes == 0;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                reservedBytes.addAndGet(-bytes);
+                activeLeases.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,150 +1,424 @@
 package com.wohngeld.service;
 
 import com.wohngeld.model.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationWidget;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceDictionary;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceEntry;
 import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
 import org.apache.pdfbox.pdmodel.interactive.form.PDCheckBox;
 import org.apache.pdfbox.pdmodel.interactive.form.PDField;
+import org.apache.pdfbox.pdmodel.interactive.form.PDNonTerminalField;
+import org.apache.pdfbox.pdmodel.interactive.form.PDTextField;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
+import java.io.OutputStream;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class PdfService {
 
-    private static final String TEMPLATE_CLASSPATH = "templates/Antrag-auf-Mietzuschuss.pdf";
-
-    private final PdfFieldAnalyzer fieldAnalyzer;
     private final PdfFieldMapper fieldMapper;
+    private final TemplateCache templateCache;
+    private final TemplateAnalysisCache analysisCache;
+    private final PdfStorageService storageService;
+    private final FillCache fillCache;
+    private final FillCoalescer fillCoalescer;
+    private final PdfMemoryBudget memoryBudget;
+    private final FillAdmission fillAdmission;
+    private final PdfWorkerPool workerPool;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${wohngeld.pdf.compression.stored:MAXIMUM}")
+    private Compression storedCompression;
 
-    @Value("${wohngeld.output.directory:output}")
-    private String outputDirectory;
+    @Value("${wohngeld.pdf.compression.streamed:STANDARD}")
+    private Compression streamedCompression;
+
+    @Value("${wohngeld.pdf.offload:false}")
+    private boolean offload;
 
     /**
      * Gibt alle Feldnamen der PDF zurück (nur die rohen Namen aus dem PDF).
      */
     public List<String> getFormFields(String pdfPath) throws IOException {
-        String template = resolveTemplatePath(pdfPath);
-        PdfFieldAnalyzer.AnalysisResult analysis = fieldAnalyzer.analyzePdf(template);
+        return analyzeTemplate(pdfPath).fields();
+    }
 
-        List<String> result = new ArrayList<>();
-        for (PdfFieldAnalyzer.FieldInfo field : analysis.getAllFields()) {
-            result.add(field.getFullName());
-        }
-        return result;
+    /**
+     * Analysiert die Felder der (ggf. eigenen) Vorlage; das Ergebnis wird je Vorlagen-Version gecacht.
+     */
+    public TemplateAnalysisCache.Analysis analyzeTemplate(String customTemplatePath) throws IOException {
+        return analysisCache.get(templateCache.get(customTemplatePath));
     }
 
     /**
-     * Füllt die PDF mit den Antragsdaten aus.
+     * Füllt die PDF mit den Antragsdaten aus und speichert sie im Ausgabeverzeichnis.
      * Uses direct field mapping for reliable PDF filling.
+     * Für Hintergrundarbeit (Stapel, Aufträge): wartet auf einen freien Platz in der {@link FillAdmission}.
      */
     public PdfResult fillPdf(WohngeldAntragRequest request, String customTemplatePath) throws IOException {
-        String template = resolveTemplatePath(customTemplatePath);
-        Path outputPath = generateOutputPath(request.getAntragsteller().getNachname());
+        return fillPdf(request, customTemplatePath, FillOptions.defaults(), null, true);
+    }
+
+    /**
+     * Wie {@link #fillPdf(WohngeldAntragRequest, String)}, für interaktive Anfragen. Ein identischer Antrag
+     * wird aus dem {@link FillCache} beantwortet; der optionale Idempotency-Key darf nur für gleiche Daten
+     * wiederkehren. Gleichzeitige identische Anträge werden über den {@link FillCoalescer} zu einem
+     * Füllvorgang zusammengefasst. Ist die PDF-Erzeugung ausgelastet, wird mit
+     * {@link AdmissionRejectedException} abgelehnt.
+     */
+    public PdfResult fillPdf(WohngeldAntragRequest request, String customTemplatePath,
+                             FillOptions requestedOptions, String idempotencyKey) throws IOException {
+        return fillPdf(request, customTemplatePath, requestedOptions, idempotencyKey, false);
+    }
+
+    private PdfResult fillPdf(WohngeldAntragRequest request, String customTemplatePath,
+                              FillOptions requestedOptions, String idempotencyKey,
+                              boolean background) throws IOException {
+        FillOptions options = requestedOptions.withDefaultCompression(storedCompression);
+        PdfTemplate template = templateCache.getFillable(customTemplatePath);
+        FillPlan plan = fieldMapper.createFillPlan(request);
+        String requestHash = fillCache.requestHash(plan, template, options);
+        fillCache.claimIdempotencyKey(idempotencyKey, requestHash);
+
+        FillCache.Entry cached = fillCache.get(requestHash);
+        if (cached != null) {
+            log.info("PDF aus Cache: {}", cached.result().getFilename());
+            return storeCached(cached);
+        }
+
+        FillCoalescer.Flight flight = fillCoalescer.execute(requestHash,
+                () -> fillToFile(request, plan, template, options, requestHash, background));
+        if (flight.leader()) {
+            return flight.entry().result();
+        }
+        if (flight.entry().content() == null) {
+            // The shared fill was too large to keep in memory; produce our own copy
+            return fillToFile(request, plan, template, options, requestHash, background).result();
+        }
+        log.info("PDF von gleichzeitigem Antrag übernommen: {}", flight.entry().result().getFilename());
+        return storeCached(flight.entry());
+    }
+
+    private FillCache.Entry fillToFile(WohngeldAntragRequest request, FillPlan plan, PdfTemplate template,
+                                       FillOptions options, String requestHash, boolean background) throws IOException {
+        String filename = storageService.newFilename(request.getAntragsteller().getNachname());
+
+        PdfResult[] result = new PdfResult[1];
+        CapturingOutputStream[] capture = new CapturingOutputStream[1];
+        Path outputPath;
+        try (FillAdmission.Permit permit = background ? fillAdmission.acquire() : fillAdmission.admit()) {
+            outputPath = storageService.store(filename, out -> {
+                capture[0] = new CapturingOutputStream(out, fillCache.getMaxEntryBytes());
+                result[0] = fill(plan, template, options, filename, ignored -> capture[0], offload && !background);
+            });
+        }
+        result[0].setOutputPath(outputPath.toString());
+        fillCache.put(requestHash, result[0], capture[0].getCaptured());
+
+        log.info("PDF erstellt: {} (Felder: {}, ausgefüllt: {})",
+                filename, result[0].getFieldsFound(), result[0].getFieldsFilled());
+        return new FillCache.Entry(result[0], capture[0].getCaptured());
+    }
+
+    /**
+     * Liefert eine bereits erzeugte PDF aus; ist sie nicht mehr abgelegt, wird sie neu abgelegt.
+     */
+    private PdfResult storeCached(FillCache.Entry entry) throws IOException {
+        PdfResult result = entry.copyResult();
+        Path outputPath = storageService.resolve(result.getFilename());
+        if (outputPath == null) {
+            outputPath = storageService.store(result.getFilename(), entry.content());
+        }
+        result.setOutputPath(outputPath.toString());
+        return result;
+    }
+
+    /**
+     * Füllt die PDF und schreibt sie in den übergebenen Ausgabestrom (z.B. die HTTP-Antwort).
+     * Mit {@code persist} wird zusätzlich eine Kopie im Hintergrund im Ausgabeverzeichnis abgelegt.
+     */
+    public PdfResult streamPdf(WohngeldAntragRequest request, String customTemplatePath,
+                               boolean persist, OutputTarget target) throws IOException {
+        return streamPdf(request, customTemplatePath, FillOptions.defaults(), persist, null, target);
+    }
+
+    /**
+     * Wie {@link #streamPdf(WohngeldAntragRequest, String, boolean, OutputTarget)} mit Füll-Optionen, Cache,
+     * Idempotency-Key und Zusammenfassung gleichzeitiger identischer Anträge.
+     * Der gemeinsame Füllvorgang schreibt in einen Puffer; jeder Aufrufer, auch der füllende, schreibt
+     * seine Antwort erst danach selbst. Ein abgebrochener oder langsamer Client trifft so nur sich selbst.
+     */
+    public PdfResult streamPdf(WohngeldAntragRequest request, String customTemplatePath, FillOptions requestedOptions,
+                               boolean persist, String idempotencyKey, OutputTarget target) throws IOException {
+        FillOptions options = requestedOptions.withDefaultCompression(streamedCompression);
+        PdfTemplate template = templateCache.getFillable(customTemplatePath);
+        FillPlan plan = fieldMapper.createFillPlan(request);
+        String requestHash = fillCache.requestHash(plan, template, options);
+        fillCache.claimIdempotencyKey(idempotencyKey, requestHash);
+
+        FillCache.Entry cached = fillCache.get(requestHash);
+        if (cached != null) {
+            log.info("PDF aus Cache gestreamt: {}", cached.result().getFilename());
+            return streamCached(cached, persist, target);
+        }
+
+        FillCoalescer.Flight flight = fillCoalescer.execute(requestHash,
+                () -> fillToBuffer(request, plan, template, options, requestHash, persist));
+        if (flight.leader()) {
+            return write(flight.entry(), target);
+        }
+        if (flight.entry().content() == null) {
+            // Coalesced onto a fillPdf whose PDF was too large to keep in memory; produce our own copy
+            return write(fillToBuffer(request, plan, template, options, requestHash, persist), target);
+        }
+        log.info("PDF von gleichzeitigem Antrag übernommen: {}", flight.entry().result().getFilename());
+        return streamCached(flight.entry(), persist, target);
+    }
+
+    private FillCache.Entry fillToBuffer(WohngeldAntragRequest request, FillPlan plan, PdfTemplate template,
+                                         FillOptions options, String requestHash,
+                                         boolean persist) throws IOException {
+        try (FillAdmission.Permit permit = fillAdmission.admit()) {
+            String filename = storageService.newFilename(request.getAntragsteller().getNachname());
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(template.getSize());
+            PdfResult result = offload
+                    ? workerPool.call(() -> fill(plan, template, options, filename, ignored -> buffer))
+                    : fill(plan, template, options, filename, ignored -> buffer);
+            byte[] content = buffer.toByteArray();
+
+            if (persist) {
+                storageService.storeAsync(filename, content);
+            }
+            fillCache.put(requestHash, result, content);
+            log.info("PDF gefüllt zum Streamen: {} (Felder: {}, ausgefüllt: {})",
+                    filename, result.getFieldsFound(), result.getFieldsFilled());
+            return new FillCache.Entry(result, content);
+        }
+    }
+
+    private PdfResult streamCached(FillCache.Entry entry, boolean persist, OutputTarget target) throws IOException {
+        PdfResult result = entry.copyResult();
+        write(result, entry.content(), target);
+
+        if (persist && storageService.resolve(result.getFilename()) == null) {
+            storageService.storeAsync(result.getFilename(), entry.content());
+        }
+        return result;
+    }
+
+    private static PdfResult write(FillCache.Entry entry, OutputTarget target) throws IOException {
+        write(entry.result(), entry.content(), target);
+        return entry.result();
+    }
+
+    private static void write(PdfResult result, byte[] content, OutputTarget target) throws IOException {
+        OutputStream out = target.open(result);
+        out.write(content);
+        out.flush();
+    }
+
+    /**
+     * Fills the template and saves it to the stream returned by the target.
+     * The target is opened only after filling, so callers can still set headers from the result.
+     * When offloaded, filling and saving run on the platform render pool into a buffer and only
+     * the copy into the target (socket or file I/O) stays on the calling, possibly virtual, thread.
+     */
+    private PdfResult fill(FillPlan plan, PdfTemplate template, FillOptions options,
+                           String filename, OutputTarget target, boolean offloaded) throws IOException {
+        if (!offloaded) {
+            return fill(plan, template, options, filename, target);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(template.getSize());
+        PdfResult result = workerPool.call(() -> fill(plan, template, options, filename, ignored -> buffer));
+        buffer.writeTo(target.open(result));
+        return result;
+    }
 
-        Files.createDirectories(outputPath.getParent());
+    private PdfResult fill(FillPlan plan, PdfTemplate template, FillOptions options,
+                           String filename, OutputTarget target) throws IOException {
+        long start = System.nanoTime();
+        try (FilledDocument filled = fillDocument(plan, template, options)) {
+            PdfResult result = PdfResult.builder()
+                    .filename(filename)
+                    .templateId(template.getKey())
+                    .templateVersion(template.getVersion())
+                    .fieldsFound(filled.fieldsFound())
+                    .fieldsFilled(filled.fieldsFilled())
+                    .fillMode(options.getMode())
+                    .flattened(options.isFlatten())
+                    .outputMode(options.isIncrementalSave() ? OutputMode.INCREMENTAL : OutputMode.FULL)
+                    .compression(options.isIncrementalSave() ? null : options.getCompression())
+                    .build();
+
+            CountingOutputStream out = new CountingOutputStream(target.open(result));
+            if (options.isIncrementalSave()) {
+                // Copies the template bytes verbatim from the in-memory source and appends the changed objects
+                filled.document().saveIncremental(out);
+            } else {
+                OutputCompression.save(filled.document(), out, result.getCompression());
+            }
+
+            long duration = System.nanoTime() - start;
+            result.setDurationMs(duration / 1_000_000);
+            result.setSizeBytes(out.getCount());
+            Timer.builder("wohngeld.pdf.fill")
+                    .description("Dauer eines Füllvorgangs inkl. Speichern")
+                    .tag("mode", options.getMode().name())
+                    .tag("flatten", String.valueOf(options.isFlatten()))
+                    .tag("output", result.getOutputMode().name())
+                    .tag("compression", String.valueOf(result.getCompression()))
+                    .register(meterRegistry)
+                    .record(duration, TimeUnit.NANOSECONDS);
+            return result;
+        }
+    }
 
+    /**
+     * Fills and saves exactly like a real request, but without cache, single flight, admission or storage.
+     * For benchmarks that must measure the production pipeline.
+     */
+    PdfResult render(WohngeldAntragRequest request, PdfTemplate template, FillOptions options,
+                     OutputStream out) throws IOException {
+        return fill(fieldMapper.createFillPlan(request), template, options, "benchmark.pdf", ignored -> out);
+    }
+
+    /**
+     * Opens the template and fills it with the request data.
+     * The caller owns the returned document and must close it.
+     */
+    FilledDocument fillDocument(WohngeldAntragRequest request, PdfTemplate template,
+                                FillOptions options) throws IOException {
+        // Compile the request data into the mapper's fixed slot layout
+        return fillDocument(fieldMapper.createFillPlan(request), template, options);
+    }
+
+    private FilledDocument fillDocument(FillPlan plan, PdfTemplate template, FillOptions options) throws IOException {
         int fieldsFound = 0;
         int fieldsFilled = 0;
+        boolean deferred = options.getMode() == FillMode.DEFERRED;
+        log.debug("Fill plan created with {} values", plan.countValues());
 
-        // Get the field mapping from request data
-        Map<String, Object> fieldMapping = fieldMapper.createFieldMapping(request);
-        log.info("Field mapping created with {} entries", fieldMapping.size());
+        PdfMemoryBudget.Lease lease = memoryBudget.acquire();
+        PDDocument document;
+        try {
+            document = template.open(lease.getStreamCache());
+        } catch (IOException | RuntimeException e) {
+            lease.close();
+            throw e;
+        }
 
-        try (PDDocument document = Loader.loadPDF(new File(template))) {
+        try {
             PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
 
             if (acroForm != null) {
-                // Count all fields
-                for (PDField ignored : acroForm.getFieldTree()) {
-                    fieldsFound++;
+                if (deferred) {
+                    // Viewers rebuild the appearance streams from the field values when opening the file
+                    acroForm.setNeedAppearances(true);
+                }
+                if (options.isIncrementalSave()) {
+                    document.getDocumentCatalog().getCOSObject().setNeedToBeUpdated(true);
+                    acroForm.getCOSObject().setNeedToBeUpdated(true);
                 }
+                TemplateFieldIndex index = template.getFieldIndex();
+                int slot = 0;
 
-                // Fill each field using direct mapping
+                // Single pass: each field's plan slots were resolved when the template was indexed
                 for (PDField field : acroForm.getFieldTree()) {
-                    String fieldName = field.getFullyQualifiedName();
-
-                    // Try to find a mapping for this field (with various encoding variations)
-                    Object value = findMappingValue(fieldMapping, fieldName);
+                    fieldsFound++;
+                    Object value = slot < index.size() ? index.valueFor(slot, plan) : null;
+                    slot++;
 
                     if (value != null) {
-                        boolean filled = fillField(field, value);
+                        boolean filled = fillField(field, value, deferred);
                         if (filled) {
                             fieldsFilled++;
-                            log.debug("Filled field '{}' = '{}'", fieldName, value);
+                            if (options.isIncrementalSave()) {
+                                markForIncrementalSave(field);
+                            }
+                            log.debug("Filled field '{}' = '{}'", field.getFullyQualifiedName(), value);
                         }
                     }
                 }
-            }
 
-            document.save(outputPath.toFile());
+                if (options.isFlatten()) {
+                    flatten(acroForm, deferred);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            try (lease) {
+                document.close();
+            }
+            throw e;
         }
 
-        log.info("PDF erstellt: {} (Felder: {}, ausgefüllt: {})",
-                outputPath.getFileName(), fieldsFound, fieldsFilled);
+        return new FilledDocument(document, lease, fieldsFound, fieldsFilled);
+    }
 
-        return PdfResult.builder()
-                .outputPath(outputPath.toString())
-                .filename(outputPath.getFileName().toString())
-                .fieldsFound(fieldsFound)
-                .fieldsFilled(fieldsFilled)
-                .build();
+    /**
+     * Moves all fields into the page content. In deferred mode no appearances exist yet,
+     * so they are generated once here instead of on every setValue.
+     */
+    private void flatten(PDAcroForm acroForm, boolean deferred) throws IOException {
+        List<PDField> fields = new ArrayList<>();
+        acroForm.getFieldTree().forEach(fields::add);
+        acroForm.flatten(fields, deferred);
+        acroForm.setNeedAppearances(false);
     }
 
     /**
-     * Finds a mapping value for a field, handling encoding variations.
+     * Marks the field, its parents, widgets and appearance streams as changed,
+     * so an incremental save appends exactly these objects.
      */
-    private Object findMappingValue(Map<String, Object> fieldMapping, String fieldName) {
-        // Direct match
-        if (fieldMapping.containsKey(fieldName)) {
-            return fieldMapping.get(fieldName);
+    private void markForIncrementalSave(PDField field) {
+        for (PDNonTerminalField parent = field.getParent(); parent != null; parent = parent.getParent()) {
+            parent.getCOSObject().setNeedToBeUpdated(true);
         }
+        field.getCOSObject().setNeedToBeUpdated(true);
 
-        // Try normalized versions (handle encoding issues with German characters)
-        String normalized = normalizeFieldName(fieldName);
-        for (Map.Entry<String, Object> entry : fieldMapping.entrySet()) {
-            if (normalizeFieldName(entry.getKey()).equals(normalized)) {
-                return entry.getValue();
+        for (PDAnnotationWidget widget : field.getWidgets()) {
+            widget.getCOSObject().setNeedToBeUpdated(true);
+            PDAppearanceDictionary appearance = widget.getAppearance();
+            if (appearance == null) {
+                continue;
+            }
+            appearance.getCOSObject().setNeedToBeUpdated(true);
+            PDAppearanceEntry normal = appearance.getNormalAppearance();
+            if (normal == null) {
+                continue;
+            }
+            if (normal.isStream()) {
+                normal.getAppearanceStream().getCOSObject().setNeedToBeUpdated(true);
+            } else {
+                if (normal.getCOSObject() instanceof COSDictionary states) {
+                    states.setNeedToBeUpdated(true);
+                }
+                normal.getSubDictionary().values()
+                        .forEach(stream -> stream.getCOSObject().setNeedToBeUpdated(true));
             }
         }
-
-        return null;
-    }
-
-    /**
-     * Normalizes a field name for comparison (handles encoding issues).
-     */
-    private String normalizeFieldName(String name) {
-        return name
-            .replace("ä", "ae").replace("Ä", "Ae")
-            .replace("ö", "oe").replace("Ö", "Oe")
-            .replace("ü", "ue").replace("Ü", "Ue")
-            .replace("ß", "ss")
-            .replace("ä", "ae").replace("ö", "oe").replace("ü", "ue")  // More variations
-            .replace("�?", "ß").replace("��", "ä")  // Common encoding errors
-            .replaceAll("[^a-zA-Z0-9_-]", "");  // Remove special chars
     }
 
     /**
      * Fills a single field with the given value.
+     * In deferred mode text values are written to /V directly, skipping appearance generation.
      */
-    private boolean fillField(PDField field, Object value) {
+    private boolean fillField(PDField field, Object value, boolean deferred) {
         try {
             if (field instanceof PDCheckBox checkbox) {
                 if (value instanceof Boolean bool && bool) {
@@ -157,7 +431,11 @@ public class PdfService {
             } else if (value != null) {
                 String strValue = String.valueOf(value);
                 if (!strValue.isEmpty() && !"null".equals(strValue)) {
-                    field.setValue(strValue);
+                    if (deferred && field instanceof PDTextField) {
+                        field.getCOSObject().setString(COSName.V, strValue);
+                    } else {
+                        field.setValue(strValue);
+                    }
                     return true;
                 }
             }
@@ -168,49 +446,24 @@ public class PdfService {
     }
 
     /**
-     * Gibt den Standard-Pfad zur PDF-Vorlage zurück.
+     * Liefert den Ausgabestrom für eine gefüllte PDF, sobald das Ergebnis feststeht.
      */
-    public String getDefaultTemplatePath() {
-        try {
-            return resolveTemplatePath(null);
-        } catch (IOException e) {
-            return TEMPLATE_CLASSPATH;
-        }
+    @FunctionalInterface
+    public interface OutputTarget {
+        OutputStream open(PdfResult result) throws IOException;
     }
 
     /**
-     * Resolves the template path. If no custom path is provided, extracts the
-     * template from classpath to a temp file.
+     * Ein gefülltes, noch offenes Dokument samt Feldstatistik.
+     * Beim Schließen wird auch die Reservierung im {@link PdfMemoryBudget} freigegeben.
      */
-    private String resolveTemplatePath(String customPath) throws IOException {
-        if (customPath != null && !customPath.isBlank()) {
-            File customFile = new File(customPath);
-            if (!customFile.exists()) {
-                throw new IOException("PDF-Vorlage nicht gefunden: " + customPath);
+    record FilledDocument(PDDocument document, PdfMemoryBudget.Lease lease,
+                          int fieldsFound, int fieldsFilled) implements Closeable {
+        @Override
+        public void close() throws IOException {
+            try (lease) {
+                document.close();
             }
-            return customPath;
-        }
-
-        // Extract template from classpath to temp file
-        ClassPathResource resource = new ClassPathResource(TEMPLATE_CLASSPATH);
-        if (!resource.exists()) {
-            throw new IOException("PDF-Vorlage nicht im Classpath gefunden: " + TEMPLATE_CLASSPATH);
         }
-
-        Path tempFile = Files.createTempFile("wohngeld-template-", ".pdf");
-        tempFile.toFile().deleteOnExit();
-
-        try (InputStream is = resource.getInputStream()) {
-            Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
-        }
-
-        log.debug("Template extracted to: {}", tempFile);
-        return tempFile.toString();
-    }
-
-    private Path generateOutputPath(String nachname) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = String.format("wohngeldantrag_%s_%s.pdf", nachname, timestamp);
-        return Paths.get(outputDirectory, filename);
     }
 }
@@ -0,0 +1,234 @@
+package com.wohngeld.service;
+
+import com.wohngeld.entity.StoredPdf;
+import com.wohngeld.repository.StoredPdfRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ablage der erzeugten PDFs im Ausgabeverzeichnis, adressiert über den Inhalt.
+ *
+ * Jeder Inhalt liegt genau einmal unter seinem SHA-256, verteilt auf Unterverzeichnisse
+ * ({@code output/ab/cd/abcd….pdf}), damit kein Verzeichnis beliebig groß wird. Die Dateinamen,
+ * unter denen Anträge heruntergeladen werden, stehen mit Hash, Größe und Zeitpunkt in der Tabelle
+ * {@link StoredPdf}; mehrere Namen können auf denselben Inhalt zeigen.
+ * Geschrieben wird zuerst in eine Temp-Datei, die anschließend atomar an ihren Platz verschoben wird.
+ * Aufgeräumt wird vom {@link OutputRetentionJob}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PdfStorageService {
+
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final int LOCK_STRIPES = 64;
+
+    private final StoredPdfRepository storedPdfRepository;
+
+    private final Object[] locks = newLocks();
+
+    @Value("${wohngeld.output.directory:output}")
+    private String outputDirectory;
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(tempDirectory());
+    }
+
+    /**
+     * Erzeugt einen neuen, eindeutigen Dateinamen für einen Antrag.
+     */
+    public String newFilename(String nachname) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        String unique = UUID.randomUUID().toString().substring(0, 8);
+        return String.format("wohngeldantrag_%s_%s_%s.pdf", nachname, timestamp, unique);
+    }
+
+    /**
+     * Pfad des Inhalts zu einem Dateinamen, oder {@code null}, wenn er nicht (mehr) abgelegt ist.
+     * Dateien aus der früheren, flachen Ablage werden weiterhin gefunden.
+     */
+    public Path resolve(String filename) {
+        StoredContent content = resolveContent(filename);
+        return content != null ? content.path() : null;
+    }
+
+    /**
+     * Wie {@link #resolve}, zusätzlich mit dem SHA-256 des Inhalts aus dem Index
+     * ({@code null} für Dateien aus der früheren, flachen Ablage).
+     */
+    public StoredContent resolveContent(String filename) {
+        StoredPdf stored = storedPdfRepository.findById(filename).orElse(null);
+        if (stored != null) {
+            Path path = contentPath(stored.getContentHash());
+            return Files.isRegularFile(path) ? new StoredContent(path, stored.getContentHash()) : null;
+        }
+        Path legacy = Paths.get(outputDirectory).resolve(filename).normalize();
+        boolean inOutputDirectory = legacy.getParent() != null
+                && legacy.getParent().equals(Paths.get(outputDirectory).normalize());
+        return inOutputDirectory && Files.isRegularFile(legacy) ? new StoredContent(legacy, null) : null;
+    }
+
+    /**
+     * Legt die PDF unter dem Dateinamen ab; {@code content} schreibt sie in den übergebenen Strom.
+     *
+     * @return Pfad des (ggf. schon vorhandenen) Inhalts
+     */
+    public Path store(String filename, Content content) throws IOException {
+        Path temp = Files.createTempFile(tempDirectory(), "pdf-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (OutputStream file = Files.newOutputStream(temp);
+                 CountingOutputStream counter = new CountingOutputStream(
+                         new DigestOutputStream(new BufferedOutputStream(file), digest))) {
+                content.writeTo(counter);
+                counter.flush();
+                size = counter.getCount();
+            }
+            return commit(filename, temp, HexFormat.of().formatHex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path store(String filename, byte[] content) throws IOException {
+        return store(filename, out -> out.write(content));
+    }
+
+    /**
+     * Schreibt die PDF im Hintergrund, damit die Antwort nicht auf die Platte warten muss.
+     */
+    @Async
+    public CompletableFuture<Path> storeAsync(String filename, byte[] content) {
+        try {
+            Path path = store(filename, content);
+            log.debug("PDF im Hintergrund gespeichert: {} -> {}", filename, path);
+            return CompletableFuture.completedFuture(path);
+        } catch (IOException e) {
+            log.error("PDF konnte nicht gespeichert werden ({}): {}", filename, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Entfernt den Eintrag und, falls kein anderer Name mehr darauf zeigt, den Inhalt.
+     *
+     * @return freigegebene Bytes auf der Platte
+     */
+    long delete(StoredPdf stored) throws IOException {
+        synchronized (lockFor(stored.getContentHash())) {
+            storedPdfRepository.delete(stored);
+            if (storedPdfRepository.existsByContentHash(stored.getContentHash())) {
+                return 0;
+            }
+            return Files.deleteIfExists(contentPath(stored.getContentHash())) ? stored.getSizeBytes() : 0;
+        }
+    }
+
+    /**
+     * Löscht liegengebliebene Temp-Dateien (z.B. nach einem Absturz während des Schreibens).
+     */
+    int deleteStaleTempFiles(LocalDateTime olderThan) throws IOException {
+        int deleted = 0;
+        long cutoff = olderThan.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tempDirectory())) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private Path commit(String filename, Path temp, String hash, long size) throws IOException {
+        Path target = contentPath(hash);
+        synchronized (lockFor(hash)) {
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException ignored) {
+                    // written by another instance sharing the directory; same hash, same bytes
+                }
+            } else {
+                log.debug("PDF-Inhalt bereits abgelegt, nur Eintrag angelegt: {} -> {}", filename, hash);
+            }
+            storedPdfRepository.save(StoredPdf.builder()
+                    .filename(filename)
+                    .contentHash(hash)
+                    .sizeBytes(size)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return target;
+    }
+
+    private Path contentPath(String hash) {
+        return Paths.get(outputDirectory, hash.substring(0, 2), hash.substring(2, 4), hash + ".pdf");
+    }
+
+    private Path tempDirectory() {
+        return Paths.get(outputDirectory, TEMP_DIRECTORY);
+    }
+
+    private Object lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Object[] newLocks() {
+        Object[] locks = new Object[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    /**
+     * Schreibt den Inhalt einer PDF in den Ablagestrom.
+     */
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Abgelegter Inhalt zu einem Dateinamen.
+     *
+     * @param contentHash SHA-256 des Inhalts, {@code null} für Dateien der früheren, flachen Ablage
+     */
+    public record StoredContent(Path path, String contentHash) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.wohngeld.service;
+
+import lombok.Getter;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Eine im Speicher gehaltene PDF-Vorlage.
+ * Die Bytes werden genau einmal gelesen; jede Anfrage erhält über {@link #open()}
+ * ein eigenes, unabhängiges Dokument, das sie frei befüllen darf.
+ * Die Version ist der SHA-256 der Bytes und ändert sich mit jedem neuen Stand der Vorlage.
+ */
+@Getter
+public class PdfTemplate {
+
+    private final String key;
+    private final byte[] content;
+    private final long lastModified;
+    private final TemplateFieldIndex fieldIndex;
+    private final String version;
+    private final int preloadedFontCount;
+
+    PdfTemplate(String key, byte[] content, long lastModified, TemplateFieldIndex fieldIndex,
+                int preloadedFontCount) {
+        this.key = key;
+        this.content = content;
+        this.lastModified = lastModified;
+        this.fieldIndex = fieldIndex;
+        this.preloadedFontCount = preloadedFontCount;
+        this.version = sha256(content);
+    }
+
+    /**
+     * Parst die Vorlage aus dem Speicher. Der Aufrufer muss das Dokument schließen.
+     * Die Schriftdaten der Formularschriften sind beim Laden vorgeladen worden ({@link TemplateFonts}).
+     */
+    public PDDocument open() throws IOException {
+        return open(null);
+    }
+
+    /**
+     * Wie {@link #open()}; neue und geänderte Stromdaten landen im angegebenen Stream-Cache
+     * (z.B. Heap mit Obergrenze und Scratch-Datei, siehe {@link PdfMemoryBudget}).
+     */
+    public PDDocument open(StreamCacheCreateFunction streamCache) throws IOException {
+        return streamCache != null
+                ? Loader.loadPDF(content, "", null, null, streamCache)
+                : Loader.loadPDF(content);
+    }
+
+    public int getSize() {
+        return content.length;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
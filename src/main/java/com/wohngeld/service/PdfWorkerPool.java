@@ -0,0 +1,107 @@
+package com.wohngeld.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Worker-Pool für die CPU-lastige PDF-Erzeugung.
+ * Standardmäßig so viele Threads wie CPU-Kerne; ist die Warteschlange voll,
+ * arbeitet der einreichende Thread selbst mit (Gegendruck statt Ablehnung).
+ *
+ * Ein zweiter, gleich großer Satz Plattform-Threads übernimmt das Füllen für einzelne Anfragen
+ * ({@link #call}), damit diese nicht hinter Stapel-Einträgen in der Warteschlange stehen.
+ *
+ * Bewusst kein {@code Executor}-Bean, damit Springs {@code applicationTaskExecutor}
+ * für {@code @Async} erhalten bleibt.
+ */
+@Component
+@Slf4j
+public class PdfWorkerPool {
+
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor renderExecutor;
+
+    public PdfWorkerPool(@Value("${wohngeld.pdf.workers:0}") int workers,
+                         @Value("${wohngeld.pdf.queue-capacity:1000}") int queueCapacity) {
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        this.executor = newExecutor(poolSize, queueCapacity, "pdf-fill-");
+        this.renderExecutor = newExecutor(poolSize, queueCapacity, "pdf-render-");
+
+        log.info("PDF-Worker-Pool: {} Threads, Warteschlange {}", poolSize, queueCapacity);
+    }
+
+    private static ThreadPoolExecutor newExecutor(int poolSize, int queueCapacity, String threadPrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Führt die CPU-lastige Arbeit einer einzelnen Anfrage auf einem Plattform-Thread aus
+     * und wartet auf das Ergebnis. Der aufrufende (ggf. virtuelle) Thread blockiert nur.
+     */
+    public <T> T call(Callable<T> task) throws IOException {
+        Future<T> future = renderExecutor.submit(task);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Warten auf PDF-Erzeugung unterbrochen");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("PDF-Erzeugung fehlgeschlagen: " + cause.getMessage(), cause);
+        }
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+        renderExecutor.shutdown();
+    }
+}
@@ -0,0 +1,96 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.Compression;
+import com.wohngeld.model.FillOptions;
+import com.wohngeld.model.WohngeldAntragRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Fügt viele gefüllte Anträge zu einer einzigen, druckfertigen PDF zusammen (Postversand).
+ *
+ * Jede Kopie wird einzeln gefüllt, geflacht, an das Sammeldokument angehängt und sofort
+ * wieder geschlossen; es ist also immer nur eine Kopie als eigenes Dokument offen.
+ * Die Stromdaten des Sammeldokuments liegen in einer Scratch-Datei statt im Heap.
+ * Schriften, Form-XObjects und Seiteninhalte der gemeinsamen Vorlage werden über den
+ * {@link ResourceDeduplicator} nur einmal geschrieben.
+ *
+ * Bewusste Grenze: PDFBox schreibt ein Dokument erst beim Speichern und braucht dafür den
+ * vollständigen Objektbaum. Stromdaten liegen zwar in der Scratch-Datei, die COS-Objekte aller
+ * Seiten (Seitenbäume, Annotationen, Dictionaries) bleiben aber bis zum Speichern im Heap; der
+ * Heap wächst also linear mit der Zahl der Anträge. Deshalb ist die Größe eines Sammeldokuments
+ * auf {@code wohngeld.bundle.max-items} begrenzt; größere Postläufe werden in mehrere
+ * Sammeldokumente aufgeteilt.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PrintBundleService {
+
+    private static final FillOptions PRINT_OPTIONS = FillOptions.builder().flatten(true).build();
+
+    private final PdfService pdfService;
+    private final TemplateCache templateCache;
+    private final PdfMemoryBudget memoryBudget;
+    private final FillAdmission fillAdmission;
+
+    @Value("${wohngeld.pdf.compression.bundle:MAXIMUM}")
+    private Compression compression;
+
+    @Value("${wohngeld.bundle.max-items:200}")
+    private int maxItems;
+
+    /**
+     * Lehnt Sammeldokumente mit mehr als {@code wohngeld.bundle.max-items} Anträgen ab.
+     */
+    public void checkSize(int size) {
+        if (size > maxItems) {
+            throw new BundleTooLargeException(maxItems);
+        }
+    }
+
+    /**
+     * Schreibt das Sammeldokument in den Ausgabestrom.
+     *
+     * @return Anzahl der Seiten im Sammeldokument
+     */
+    public int writeBundle(List<WohngeldAntragRequest> requests, String templatePath,
+                           OutputStream out) throws IOException {
+        checkSize(requests.size());
+        long start = System.nanoTime();
+        PdfTemplate template = templateCache.getFillable(templatePath);
+        PDFMergerUtility merger = new PDFMergerUtility();
+        ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+
+        try (FillAdmission.Permit permit = fillAdmission.admit();
+             PDDocument bundle = new PDDocument(memoryBudget.tempFileOnly())) {
+            for (WohngeldAntragRequest request : requests) {
+                // Printed copies need no interactive fields; flattening also drops the widget annotations
+                try (PdfService.FilledDocument filled = pdfService.fillDocument(request, template, PRINT_OPTIONS)) {
+                    PDDocument document = filled.document();
+
+                    int firstPage = bundle.getNumberOfPages();
+                    merger.appendDocument(bundle, document);
+                    for (int i = firstPage; i < bundle.getNumberOfPages(); i++) {
+                        deduplicator.deduplicate(bundle.getPage(i));
+                    }
+                }
+            }
+
+            int pages = bundle.getNumberOfPages();
+            OutputCompression.save(bundle, out, compression);
+
+            log.info("Sammeldokument erstellt: {} Anträge, {} Seiten, {} gemeinsame Objekte in {} ms",
+                    requests.size(), pages, deduplicator.getReplaced(), (System.nanoTime() - start) / 1_000_000);
+            return pages;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.wohngeld.service;
+
+import org.apache.pdfbox.cos.*;
+import org.apache.pdfbox.pdmodel.PDPage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Führt inhaltsgleiche Ressourcen mehrerer Seiten auf ein gemeinsames Objekt zusammen.
+ *
+ * Beim Anhängen eines Dokuments klont PDFBox alle Objekte, so dass jede Kopie der Vorlage
+ * eigene Schriften, Form-XObjects und Seiteninhalte mitbringt. Hier bekommt jedes Objekt
+ * einen SHA-256-Fingerabdruck über Schlüssel, Werte und Stromdaten; trägt ein späteres
+ * Objekt denselben Abdruck, verweist die Seite stattdessen auf das erste. Die Duplikate
+ * sind danach nicht mehr erreichbar und werden beim Speichern nicht geschrieben.
+ */
+class ResourceDeduplicator {
+
+    private static final String CYCLE = "cycle";
+
+    private final Map<String, COSBase> canonicalByDigest = new HashMap<>();
+    private final Map<COSBase, String> digestByObject = new IdentityHashMap<>();
+    private final Set<COSBase> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private int replaced;
+    private int cyclesSeen;
+
+    /**
+     * Ersetzt Ressourcen und Inhaltsströme der Seite durch bereits bekannte, gleiche Objekte.
+     */
+    void deduplicate(PDPage page) throws IOException {
+        COSDictionary pageDict = page.getCOSObject();
+
+        COSDictionary resources = pageDict.getCOSDictionary(COSName.RESOURCES);
+        if (resources != null) {
+            deduplicateResources(resources);
+        }
+
+        COSBase contents = pageDict.getDictionaryObject(COSName.CONTENTS);
+        if (contents instanceof COSStream) {
+            pageDict.setItem(COSName.CONTENTS, canonical(contents));
+        } else if (contents instanceof COSArray array) {
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, canonical(array.getObject(i)));
+            }
+        }
+    }
+
+    /**
+     * Anzahl der bisher durch ein gemeinsames Objekt ersetzten Duplikate.
+     */
+    int getReplaced() {
+        return replaced;
+    }
+
+    private void deduplicateResources(COSDictionary resources) throws IOException {
+        for (COSName category : new ArrayList<>(resources.keySet())) {
+            if (!(resources.getDictionaryObject(category) instanceof COSDictionary entries)) {
+                continue;
+            }
+            for (COSName name : new ArrayList<>(entries.keySet())) {
+                COSBase entry = entries.getDictionaryObject(name);
+                if (entry instanceof COSStream stream) {
+                    // Form XObjects carry their own resources; share those first
+                    COSDictionary nested = stream.getCOSDictionary(COSName.RESOURCES);
+                    if (nested != null && nested != resources) {
+                        deduplicateResources(nested);
+                    }
+                }
+                if (entry instanceof COSDictionary) {
+                    entries.setItem(name, canonical(entry));
+                }
+            }
+        }
+    }
+
+    private COSBase canonical(COSBase object) throws IOException {
+        if (object == null) {
+            return null;
+        }
+        int cyclesBefore = cyclesSeen;
+        String digest = digest(object);
+        if (cyclesSeen != cyclesBefore) {
+            // Digests of self-referencing structures are not exact; keep those objects as they are
+            return object;
+        }
+        COSBase existing = canonicalByDigest.putIfAbsent(digest, object);
+        if (existing == null || existing == object) {
+            return object;
+        }
+        replaced++;
+        return existing;
+    }
+
+    private String digest(COSBase base) throws IOException {
+        COSBase object = base instanceof COSObject reference ? reference.getObject() : base;
+        if (object == null) {
+            return "null";
+        }
+        if (object instanceof COSString string) {
+            return "str:" + string.toHexString();
+        }
+        if (!(object instanceof COSDictionary) && !(object instanceof COSArray)) {
+            return object.toString();
+        }
+
+        String cached = digestByObject.get(object);
+        if (cached != null) {
+            return cached;
+        }
+        if (!inProgress.add(object)) {
+            cyclesSeen++;
+            return CYCLE;
+        }
+
+        int cyclesBefore = cyclesSeen;
+        try {
+            MessageDigest sha = newDigest();
+            if (object instanceof COSArray array) {
+                update(sha, "A[");
+                for (int i = 0; i < array.size(); i++) {
+                    update(sha, digest(array.get(i)));
+                    update(sha, ",");
+                }
+            } else {
+                COSDictionary dict = (COSDictionary) object;
+                update(sha, object instanceof COSStream ? "S{" : "D{");
+                List<COSName> keys = new ArrayList<>(dict.keySet());
+                keys.sort(Comparator.comparing(COSName::getName));
+                for (COSName key : keys) {
+                    // Back-references to the page tree differ per copy but do not change the content
+                    if (COSName.PARENT.equals(key) || COSName.P.equals(key)) {
+                        continue;
+                    }
+                    update(sha, key.getName());
+                    update(sha, "=");
+                    update(sha, digest(dict.getItem(key)));
+                    update(sha, ";");
+                }
+                if (object instanceof COSStream stream) {
+                    try (InputStream raw = stream.createRawInputStream()) {
+                        byte[] buffer = new byte[8192];
+                        int read;
+                        while ((read = raw.read(buffer)) != -1) {
+                            sha.update(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+
+            String digest = HexFormat.of().formatHex(sha.digest());
+            if (cyclesSeen == cyclesBefore) {
+                digestByObject.put(object, digest);
+            }
+            return digest;
+        } finally {
+            inProgress.remove(object);
+        }
+    }
+
+    private static void update(MessageDigest sha, String value) {
+        sha.update(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.wohngeld.service;
+
+import com.wohngeld.dto.*;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Beispiel-Antragsdaten für {@code /api/v2/data/sample} und das Aufwärmen beim Start.
+ */
+@Component
+public class SampleDataFactory {
+
+    /**
+     * Creates realistic sample data based on transcript analysis.
+     * Typical case: Rentner with EU-Rente and Pflegegrad.
+     */
+    public WohngeldAntragRequestDTO createSampleDataDTO() {
+        return WohngeldAntragRequestDTO.builder()
+                .antrag(AntragMetadatenDTO.builder()
+                        .erstantrag(true)
+                        // wohngeldAb NOT needed for Erstantrag - counts from submission
+                        .antragsdatum("21.12.2025")
+                        .formloserAntragDatum("07.01.2025")  // If informal application was sent earlier
+                        .build())
+                .antragsteller(AntragstellerDTO.builder()
+                        .familienname("Beispiel")
+                        .vorname("Maria")
+                        .geburtsdatum("23.05.1962")
+                        .staatsangehoerigkeit("deutsch")
+                        .geschlecht("WEIBLICH")
+                        .familienstand("GESCHIEDEN")
+                        .erwerbsstatus("RENTNER")  // Most common for this clientele
+                        // geburtsname, geburtsort not needed
+                        // telefon, email are optional ("freiwillig")
+                        .build())
+                .adresse(AdresseDTO.builder()
+                        .strasse("Heilig-Geist-Str.")
+                        .hausnummer("3")
+                        .plz("14467")
+                        .ort("Potsdam")
+                        .bundesland("Brandenburg")
+                        .build())
+                .wohnung(WohnungDTO.builder()
+                        .wohnflaecheQm(45.0)
+                        .wohnverhaeltnis("HAUPTMIETER")  // Most common
+                        .verwandtschaftMitVermieter(false)
+                        .mietpreisbindung(false)  // Only true with WBS
+                        .build())
+                .miete(MieteDTO.builder()
+                        .gesamtmiete(463.25)
+                        .heizkostenEnthalten(false)
+                        .heizkosten(61.50)
+                        .warmwasserEnthalten(false)
+                        .warmwasserkosten(0.0)
+                        .sonstigeKosten(0.0)
+                        .mietaenderung("NEIN")  // Always NEIN - send update if it changes
+                        .build())
+                .einkommen(EinkommenDTO.builder()
+                        .einnahmen(List.of(
+                                EinnahmeDTO.builder()
+                                        .art("Erwerbsminderungsrente")  // Most common: EU-Rente
+                                        .bruttoBetrag(855.42)
+                                        .turnus("MONATLICH")
+                                        .build(),
+                                EinnahmeDTO.builder()
+                                        .art("Zuschlag zur Rente")
+                                        .bruttoBetrag(38.49)
+                                        .turnus("MONATLICH")
+                                        .build()
+                        ))
+                        .krankenPflegeversicherung(true)  // Usually JA - from Rentenbescheid
+                        .rentenversicherung(false)  // Rentner don't pay this
+                        .steuern(false)  // Only ~2% pay taxes
+                        .build())
+                .bankverbindung(BankverbindungDTO.builder()
+                        .iban("DE89 3704 0044 0532 0130 00")
+                        .bankName("Sparkasse Potsdam")
+                        .kontoinhaberFamilienname("Beispiel")
+                        .kontoinhaberVorname("Maria")
+                        .kontoinhaberAnschrift("Heilig-Geist-Str. 3, 14467 Potsdam")
+                        .build())
+                .zusatzfragen(ZusatzfragenDTO.builder()
+                        .andereWohnungWohngeld(false)
+                        .zweitwohnsitz(false)
+                        .transferleistungen(true)  // Grundsicherung beantragt
+                        .transferleistungArt("GRUNDSICHERUNG")  // Type 2
+                        .transferleistungDatum("07.01.2025")  // Date of formloser Antrag
+                        .aufgefordertZuBeantragen(false)
+                        .schwerbehinderungOderPflege(true)  // Common for this clientele
+                        .pflegegrad("PG 2")
+                        .haeuslichPflegebeduerftig(false)
+                        .vermoegen(false)  // Under 60,000 EUR threshold
+                        .einverstaendnisKontoauszuege(true)  // Usually JA
+                        .build())
+                .build();
+    }
+}
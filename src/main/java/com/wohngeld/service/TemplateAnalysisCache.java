@@ -0,0 +1,72 @@
+package com.wohngeld.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merkt sich Feldanalyse, Bericht und Feldliste je Vorlagen-Version (SHA-256 des Inhalts).
+ * Solange sich eine Vorlage nicht ändert, wird sie für {@code /api/analyze} und {@code /api/fields}
+ * nur einmal geparst und klassifiziert; die Version dient zugleich als ETag.
+ */
+@Component
+@Slf4j
+public class TemplateAnalysisCache {
+
+    private final PdfFieldAnalyzer fieldAnalyzer;
+    private final Map<String, Analysis> analyses;
+
+    public TemplateAnalysisCache(PdfFieldAnalyzer fieldAnalyzer,
+                                 @Value("${wohngeld.templates.analysis-cache-entries:32}") int maxEntries) {
+        this.fieldAnalyzer = fieldAnalyzer;
+        this.analyses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Analysis> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Analysis get(PdfTemplate template) throws IOException {
+        synchronized (analyses) {
+            Analysis cached = analyses.get(template.getVersion());
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long start = System.nanoTime();
+        PdfFieldAnalyzer.AnalysisResult result = fieldAnalyzer.analyzePdf(template.getContent());
+        List<String> fields = result.getAllFields().stream()
+                .map(PdfFieldAnalyzer.FieldInfo::getFullName)
+                .toList();
+        Analysis analysis = new Analysis(template.getVersion(), result,
+                fieldAnalyzer.formatAnalysisReport(result), fields);
+        log.debug("Vorlage {} analysiert: {} Felder in {} ms",
+                template.getKey(), fields.size(), (System.nanoTime() - start) / 1_000_000);
+
+        synchronized (analyses) {
+            analyses.put(template.getVersion(), analysis);
+        }
+        return analysis;
+    }
+
+    /**
+     * Analyse einer Vorlagen-Version. Wird von allen Anfragen geteilt und darf nicht verändert werden.
+     */
+    public record Analysis(String templateVersion, PdfFieldAnalyzer.AnalysisResult result,
+                           String report, List<String> fields) {
+
+        /**
+         * Starker ETag; ändert sich nur mit dem Inhalt der Vorlage.
+         */
+        public String etag() {
+            return "\"" + templateVersion + "\"";
+        }
+    }
+}
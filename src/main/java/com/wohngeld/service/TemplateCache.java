@@ -0,0 +1,285 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.TemplateInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hält die PDF-Vorlagen im Speicher, damit sie nicht bei jeder Anfrage
+ * in eine Temp-Datei kopiert und von der Platte gelesen werden müssen.
+ *
+ * Vorlagen werden über ihre ID aus der {@link TemplateRegistry} angesprochen; ohne Angabe gilt die
+ * Standardvorlage. Was keine registrierte ID ist, wird wie bisher als Dateipfad gelesen.
+ * Jede Vorlage bringt ihren eigenen {@link TemplateFieldIndex} (Zuordnung der Mapper-Felder zu ihren
+ * PDF-Feldern) mit; die Schriftdaten ihrer Formularschriften sind beim Laden vorgeladen ({@link TemplateFonts}).
+ * Dateivorlagen werden neu gelesen, sobald sich Größe oder Änderungszeit ändern. Vorlagen aus dem
+ * überwachten Verzeichnis werden dagegen nur vom {@link TemplateWatcher} ersetzt ({@link #swap}):
+ * Anfragen sehen bis zum Austausch die alte, vollständig geladene Version, nie eine halb geschriebene Datei.
+ * Laufende Füllvorgänge behalten ihre {@link PdfTemplate} und beenden sich auf dem alten Stand.
+ *
+ * Es gibt nur einen {@link PdfFieldMapper} mit einem festen Feld-Layout, zugeschnitten auf das
+ * Mietzuschuss-Formular. Varianten müssen dessen Feldnamen verwenden; eine Vorlage, der weniger als
+ * {@code wohngeld.templates.min-coverage} der Mapper-Felder zugeordnet werden können, lässt sich
+ * analysieren, wird aber zum Füllen ({@link #getFillable}) und beim Austausch abgelehnt, statt fast
+ * leere PDFs zu erzeugen.
+ *
+ * Die geladenen Vorlagen liegen in einem LRU, der nach Byte-Grenze und Anzahl begrenzt ist;
+ * selten genutzte Varianten werden verdrängt und beim nächsten Zugriff neu geladen.
+ */
+@Component
+@Slf4j
+public class TemplateCache {
+
+    private final PdfFieldMapper fieldMapper;
+    private final TemplateRegistry registry;
+    private final long maxBytes;
+    private final int maxEntries;
+    private final double minCoverage;
+
+    private final LinkedHashMap<String, PdfTemplate> templates = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final Counter evictions;
+
+    public TemplateCache(PdfFieldMapper fieldMapper,
+                         TemplateRegistry registry,
+                         @Value("${wohngeld.templates.max-bytes:67108864}") long maxBytes,
+                         @Value("${wohngeld.templates.max-entries:16}") int maxEntries,
+                         @Value("${wohngeld.templates.min-coverage:0.2}") double minCoverage,
+                         MeterRegistry meterRegistry) {
+        this.fieldMapper = fieldMapper;
+        this.registry = registry;
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.minCoverage = minCoverage;
+
+        this.evictions = Counter.builder("wohngeld.templates.evictions")
+                .description("Aus dem Speicher verdrängte Vorlagen")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.templates.loaded", this, TemplateCache::getLoadedCount)
+                .description("Geladene Vorlagen")
+                .register(meterRegistry);
+        Gauge.builder("wohngeld.templates.bytes", this, TemplateCache::getCurrentBytes)
+                .description("Belegter Speicher der geladenen Vorlagen")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gibt die Vorlage zurück: registrierte ID, sonst Dateipfad. Ohne Angabe die Standardvorlage.
+     */
+    public PdfTemplate get(String template) throws IOException {
+        String id = template == null || template.isBlank() ? registry.getDefaultId() : template;
+        String source = registry.getSource(id);
+        if (source == null) {
+            Path path = Path.of(template);
+            return getFromFile(path.toAbsolutePath().normalize().toString(), path);
+        }
+        if (registry.isWatched(id)) {
+            PdfTemplate cached = lookup(id);
+            return cached != null ? cached : store(load(id, Path.of(source)));
+        }
+        if (source.startsWith(TemplateRegistry.CLASSPATH_PREFIX)) {
+            return getFromClasspath(id, source.substring(TemplateRegistry.CLASSPATH_PREFIX.length()));
+        }
+        return getFromFile(id, Path.of(source));
+    }
+
+    /**
+     * Wie {@link #get}, lehnt aber Vorlagen ab, die kaum Felder des {@link PdfFieldMapper} enthalten.
+     */
+    public PdfTemplate getFillable(String template) throws IOException {
+        PdfTemplate loaded = get(template);
+        if (!isFillable(loaded.getFieldIndex())) {
+            throw new IOException("PDF-Vorlage " + loaded.getKey() + " passt nicht zum Feld-Mapper: "
+                    + coverage(loaded.getFieldIndex()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Lädt einen neuen Stand der Vorlage und tauscht ihn atomar gegen den bisherigen aus.
+     * Ist der Inhalt unverändert, bleibt die geladene Version bestehen. Ein Stand, der nicht zum
+     * Feld-Mapper passt, wird abgelehnt; die bisherige Version bleibt dann aktiv.
+     * Erst nach erfolgreichem Laden wird die Datei als Quelle der ID registriert.
+     */
+    PdfTemplate swap(String id, Path path) throws IOException {
+        PdfTemplate loaded = load(id, path);
+        if (!isFillable(loaded.getFieldIndex())) {
+            throw new IOException("Neuer Stand von " + id + " passt nicht zum Feld-Mapper: "
+                    + coverage(loaded.getFieldIndex()));
+        }
+        // Before the store, so requests keep getting the cached version instead of re-reading the old source
+        registry.registerWatched(id, path);
+        PdfTemplate current = lookup(id);
+        if (current != null && current.getVersion().equals(loaded.getVersion())) {
+            return current;
+        }
+        store(loaded);
+        log.info("PDF-Vorlage {} ausgetauscht: Version {} -> {}", id,
+                current != null ? current.getVersion() : "-", loaded.getVersion());
+        return loaded;
+    }
+
+    /**
+     * Entfernt die geladene Vorlage; der nächste Zugriff lädt sie aus ihrer aktuellen Quelle.
+     */
+    synchronized void evict(String id) {
+        PdfTemplate removed = templates.remove(id);
+        if (removed != null) {
+            currentBytes -= removed.getSize();
+        }
+    }
+
+    /**
+     * Übersicht über alle registrierten Vorlagen, ohne sie zu laden.
+     */
+    public List<TemplateInfo> describe() {
+        List<TemplateInfo> result = new ArrayList<>();
+        for (String id : registry.getIds()) {
+            PdfTemplate loaded = peek(id);
+            result.add(TemplateInfo.builder()
+                    .id(id)
+                    .source(registry.getSource(id))
+                    .defaultTemplate(id.equals(registry.getDefaultId()))
+                    .loaded(loaded != null)
+                    .sizeBytes(loaded != null ? loaded.getSize() : null)
+                    .fields(loaded != null ? loaded.getFieldIndex().size() : null)
+                    .version(loaded != null ? loaded.getVersion() : null)
+                    .build());
+        }
+        return result;
+    }
+
+    private PdfTemplate getFromClasspath(String key, String resourcePath) throws IOException {
+        PdfTemplate cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        ClassPathResource resource = new ClassPathResource(resourcePath);
+        if (!resource.exists()) {
+            throw new IOException("PDF-Vorlage nicht im Classpath gefunden: " + resourcePath);
+        }
+
+        byte[] content;
+        try (InputStream is = resource.getInputStream()) {
+            content = is.readAllBytes();
+        }
+
+        return store(load(key, content, 0L));
+    }
+
+    private PdfTemplate getFromFile(String key, Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("PDF-Vorlage nicht gefunden: " + path);
+        }
+
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        long size = Files.size(path);
+
+        PdfTemplate cached = lookup(key);
+        if (cached != null && cached.getLastModified() == lastModified && cached.getSize() == size) {
+            return cached;
+        }
+
+        return store(load(key, Files.readAllBytes(path), lastModified));
+    }
+
+    private PdfTemplate load(String key, Path path) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("PDF-Vorlage nicht gefunden: " + path);
+        }
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        return load(key, Files.readAllBytes(path), lastModified);
+    }
+
+    private PdfTemplate load(String key, byte[] content, long lastModified) throws IOException {
+        TemplateFieldIndex index;
+        int preloadedFonts;
+        try (PDDocument document = Loader.loadPDF(content)) {
+            PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
+            index = TemplateFieldIndex.build(acroForm, fieldMapper.getLayout());
+            preloadedFonts = TemplateFonts.preload(acroForm);
+        }
+
+        if (!isFillable(index)) {
+            log.warn("Vorlage {} passt nicht zum Feld-Mapper: {}", key, coverage(index));
+        } else if (!index.getUnresolvedKeys().isEmpty()) {
+            log.warn("Vorlage {}: {} Mapper-Felder ohne PDF-Feld: {}",
+                    key, index.getUnresolvedKeys().size(), index.getUnresolvedKeys());
+        }
+        return new PdfTemplate(key, content, lastModified, index, preloadedFonts);
+    }
+
+    private boolean isFillable(TemplateFieldIndex index) {
+        int layoutSize = fieldMapper.getLayout().size();
+        return layoutSize - index.getUnresolvedKeys().size() >= minCoverage * layoutSize;
+    }
+
+    private String coverage(TemplateFieldIndex index) {
+        int layoutSize = fieldMapper.getLayout().size();
+        return "nur " + (layoutSize - index.getUnresolvedKeys().size()) + " von " + layoutSize
+                + " Feldern zugeordnet";
+    }
+
+    private synchronized PdfTemplate lookup(String key) {
+        return templates.get(key);
+    }
+
+    private synchronized PdfTemplate peek(String key) {
+        // Plain map access would count as a use and reorder the LRU
+        for (Map.Entry<String, PdfTemplate> entry : templates.entrySet()) {
+            if (entry.getKey().equals(key)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private synchronized PdfTemplate store(PdfTemplate template) {
+        PdfTemplate previous = templates.put(template.getKey(), template);
+        if (previous != null) {
+            currentBytes -= previous.getSize();
+        }
+        currentBytes += template.getSize();
+        log.info("PDF-Vorlage geladen: {} ({} Bytes, {} Felder, {} vorgeladene Schriften)",
+                template.getKey(), template.getSize(), template.getFieldIndex().size(), template.getPreloadedFontCount());
+
+        // The template just stored is the most recent entry and is never evicted itself
+        Iterator<PdfTemplate> eldest = templates.values().iterator();
+        while ((currentBytes > maxBytes || templates.size() > maxEntries) && templates.size() > 1) {
+            PdfTemplate evicted = eldest.next();
+            eldest.remove();
+            currentBytes -= evicted.getSize();
+            evictions.increment();
+            log.info("PDF-Vorlage verdrängt: {} ({} Bytes)", evicted.getKey(), evicted.getSize());
+        }
+        return template;
+    }
+
+    public synchronized int getLoadedCount() {
+        return templates.size();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+}
@@ -0,0 +1,152 @@
+package com.wohngeld.service;
+
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.apache.pdfbox.pdmodel.interactive.form.PDField;
+
+import java.util.*;
+
+/**
+ * Feldindex einer Vorlage, einmal pro Vorlage aufgebaut.
+ *
+ * Jedes Feld bekommt einen Slot = seine Position in {@link PDAcroForm#getFieldTree()}.
+ * Da jede Anfrage ihr Dokument aus denselben Bytes parst, ist die Reihenfolge stabil
+ * und ein Feld kann beim Befüllen über seinen Slot statt über Namensvergleiche gefunden werden.
+ * Zusätzlich wird jedem Feld der passende Slot im {@link FieldLayout} des Mappers zugeordnet.
+ */
+public class TemplateFieldIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] fieldNames;
+    private final Map<String, Integer> slotByName;
+    private final Map<String, Integer> slotByNormalizedName;
+    private final int[][] planSlotsBySlot;
+    private final List<String> unresolvedKeys;
+
+    private TemplateFieldIndex(List<String> names, FieldLayout layout) {
+        this.fieldNames = names.toArray(new String[0]);
+        this.slotByName = new HashMap<>();
+        this.slotByNormalizedName = new HashMap<>();
+
+        for (int slot = 0; slot < fieldNames.length; slot++) {
+            slotByName.putIfAbsent(fieldNames[slot], slot);
+            slotByNormalizedName.putIfAbsent(normalizeFieldName(fieldNames[slot]), slot);
+        }
+
+        Map<String, Integer> planSlotByName = new HashMap<>();
+        Map<String, List<Integer>> planSlotsByNormalizedName = new HashMap<>();
+        for (int planSlot = 0; planSlot < layout.size(); planSlot++) {
+            String key = layout.getFieldName(planSlot);
+            planSlotByName.putIfAbsent(key, planSlot);
+            planSlotsByNormalizedName.computeIfAbsent(normalizeFieldName(key), k -> new ArrayList<>()).add(planSlot);
+        }
+
+        // Every PDF field is resolved on its own, as in the former per-request lookup: the direct key first,
+        // then every key with the same normalized name in mapping order. One key can therefore fill
+        // several encoding variants of a field.
+        this.planSlotsBySlot = new int[fieldNames.length][];
+        boolean[] used = new boolean[layout.size()];
+        for (int slot = 0; slot < fieldNames.length; slot++) {
+            Integer direct = planSlotByName.get(fieldNames[slot]);
+            List<Integer> normalized = planSlotsByNormalizedName.getOrDefault(
+                    normalizeFieldName(fieldNames[slot]), List.of());
+
+            List<Integer> candidates = new ArrayList<>();
+            if (direct != null) {
+                candidates.add(direct);
+            }
+            for (int planSlot : normalized) {
+                if (direct == null || planSlot != direct) {
+                    candidates.add(planSlot);
+                }
+            }
+            planSlotsBySlot[slot] = candidates.isEmpty() ? NONE
+                    : candidates.stream().mapToInt(Integer::intValue).toArray();
+            for (int planSlot : planSlotsBySlot[slot]) {
+                used[planSlot] = true;
+            }
+        }
+
+        List<String> unresolved = new ArrayList<>();
+        for (int planSlot = 0; planSlot < layout.size(); planSlot++) {
+            if (!used[planSlot]) {
+                unresolved.add(layout.getFieldName(planSlot));
+            }
+        }
+        this.unresolvedKeys = List.copyOf(unresolved);
+    }
+
+    /**
+     * Baut den Index aus der AcroForm der Vorlage und dem Feld-Layout des {@link PdfFieldMapper}.
+     */
+    public static TemplateFieldIndex build(PDAcroForm acroForm, FieldLayout layout) {
+        List<String> names = new ArrayList<>();
+        if (acroForm != null) {
+            for (PDField field : acroForm.getFieldTree()) {
+                names.add(field.getFullyQualifiedName());
+            }
+        }
+        return new TemplateFieldIndex(names, layout);
+    }
+
+    /**
+     * Baut den Index aus den Feldnamen in der Reihenfolge von {@link PDAcroForm#getFieldTree()}.
+     */
+    static TemplateFieldIndex of(List<String> fieldNames, FieldLayout layout) {
+        return new TemplateFieldIndex(fieldNames, layout);
+    }
+
+    /**
+     * Slot eines Feldes über den exakten oder normalisierten Namen, -1 wenn unbekannt.
+     */
+    public int resolve(String fieldName) {
+        Integer slot = slotByName.get(fieldName);
+        if (slot == null) {
+            slot = slotByNormalizedName.get(normalizeFieldName(fieldName));
+        }
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Wert für das Feld im Slot: der direkt passende Schlüssel, sonst der erste Schlüssel mit gleichem
+     * normalisierten Namen, der in diesem Plan einen Wert hat; {@code null}, wenn keiner passt.
+     */
+    public Object valueFor(int slot, FillPlan plan) {
+        for (int planSlot : planSlotsBySlot[slot]) {
+            Object value = plan.get(planSlot);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public String getFieldName(int slot) {
+        return fieldNames[slot];
+    }
+
+    public int size() {
+        return fieldNames.length;
+    }
+
+    /**
+     * Mapper-Schlüssel, für die die Vorlage kein Feld hat.
+     */
+    public List<String> getUnresolvedKeys() {
+        return unresolvedKeys;
+    }
+
+    /**
+     * Normalizes a field name for comparison (handles encoding issues).
+     */
+    static String normalizeFieldName(String name) {
+        return name
+            .replace("ä", "ae").replace("Ä", "Ae")
+            .replace("ö", "oe").replace("Ö", "Oe")
+            .replace("ü", "ue").replace("Ü", "Ue")
+            .replace("ß", "ss")
+            .replace("ä", "ae").replace("ö", "oe").replace("ü", "ue")  // More variations
+            .replace("�?", "ß").replace("��", "ä")  // Common encoding errors
+            .replaceAll("[^a-zA-Z0-9_-]", "");  // Remove special chars
+    }
+}
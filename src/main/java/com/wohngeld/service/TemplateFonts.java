@@ -0,0 +1,74 @@
+package com.wohngeld.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+
+import java.io.IOException;
+
+/**
+ * Lädt die Schriftdaten der Formular-Standardressourcen (/DR) einer Vorlage vor.
+ *
+ * Geteilt wird über Anfragen hinweg nur, was unveränderlich ist: AFM-Metriken der Standardschriften,
+ * Ersatzschriften des Systems und Glyphenlisten liegen in den prozessweiten Caches von PDFBox und
+ * werden hier einmal beim Laden der Vorlage befüllt. {@link PDFont}-Objekte und ihre Dictionaries
+ * sind dagegen nicht threadsicher und hängen nach dem Speichern am Objektgraphen eines Dokuments;
+ * jedes geöffnete Dokument baut seine Schriften deshalb selbst und cached sie nur für sich
+ * (Appearance-Erzeugung und Flatten lösen jede Schrift so einmal pro Dokument auf).
+ */
+@Slf4j
+final class TemplateFonts {
+
+    private TemplateFonts() {
+    }
+
+    /**
+     * Baut jede Schrift der Standardressourcen einmal zum Wegwerfen und füllt dabei die prozessweiten Caches.
+     *
+     * @return Anzahl der vorgeladenen Schriften
+     */
+    static int preload(PDAcroForm acroForm) {
+        PDResources defaultResources = acroForm != null ? acroForm.getDefaultResources() : null;
+        if (defaultResources == null) {
+            return 0;
+        }
+        COSDictionary fonts = defaultResources.getCOSObject().getCOSDictionary(COSName.FONT);
+        if (fonts == null) {
+            return 0;
+        }
+
+        int preloaded = 0;
+        for (COSName name : fonts.keySet()) {
+            try {
+                PDFont font = defaultResources.getFont(name);
+                if (font != null) {
+                    warm(font);
+                    preloaded++;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Schrift {} wird nicht vorgeladen: {}", name.getName(), e.getMessage());
+            }
+        }
+        return preloaded;
+    }
+
+    /**
+     * Fragt Breiten und Kodierung der einfachen Codes ab; dabei lädt PDFBox Metriken und Ersatzschrift.
+     */
+    private static void warm(PDFont font) throws IOException {
+        for (int code = 0; code < 256; code++) {
+            font.getWidth(code);
+            String unicode = font.toUnicode(code);
+            if (unicode != null && unicode.codePointCount(0, unicode.length()) == 1) {
+                try {
+                    font.encode(unicode);
+                } catch (IllegalArgumentException ignored) {
+                    // not encodable in this font
+                }
+            }
+        }
+    }
+}
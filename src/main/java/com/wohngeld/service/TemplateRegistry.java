@@ -0,0 +1,96 @@
+package com.wohngeld.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verzeichnis der PDF-Vorlagen unter stabilen IDs (z.B. {@code mietzuschuss}, {@code lastenzuschuss},
+ * {@code weiterleistung} oder regionale Varianten).
+ *
+ * Die Quellen kommen aus {@code wohngeld.templates.sources.<id>} und sind entweder eine
+ * Classpath-Ressource ({@code classpath:templates/...}) oder ein Dateipfad. Ohne Konfiguration
+ * ist nur die mitgelieferte Mietzuschuss-Vorlage registriert. Alle Vorlagen werden mit demselben
+ * {@link PdfFieldMapper} gefüllt und müssen dessen Feldnamen tragen (siehe {@link TemplateCache}).
+ *
+ * Dateien {@code <id>.pdf} im überwachten Vorlagenverzeichnis ({@link TemplateWatcher}) haben Vorrang
+ * vor der konfigurierten Quelle derselben ID und können zur Laufzeit hinzukommen oder wegfallen.
+ */
+@Component
+@Slf4j
+public class TemplateRegistry {
+
+    static final String CLASSPATH_PREFIX = "classpath:";
+
+    private static final String BUILTIN_ID = "mietzuschuss";
+    private static final String BUILTIN_SOURCE = CLASSPATH_PREFIX + "templates/Antrag-auf-Mietzuschuss.pdf";
+
+    private final String defaultId;
+    private final Map<String, String> sources;
+    private final Map<String, Path> watched = new ConcurrentHashMap<>();
+
+    public TemplateRegistry(Environment environment,
+                            @Value("${wohngeld.templates.default:" + BUILTIN_ID + "}") String defaultId) {
+        Map<String, String> configured = Binder.get(environment)
+                .bind("wohngeld.templates.sources", Bindable.mapOf(String.class, String.class))
+                .orElseGet(Map::of);
+
+        Map<String, String> sources = new TreeMap<>(configured);
+        if (sources.isEmpty()) {
+            sources.put(BUILTIN_ID, BUILTIN_SOURCE);
+        }
+        if (!sources.containsKey(defaultId)) {
+            throw new IllegalStateException("Standardvorlage '" + defaultId + "' ist nicht registriert: "
+                    + sources.keySet());
+        }
+
+        this.defaultId = defaultId;
+        this.sources = Collections.unmodifiableMap(sources);
+        log.info("Vorlagen-Registry: {} (Standard: {})", this.sources.keySet(), defaultId);
+    }
+
+    public String getDefaultId() {
+        return defaultId;
+    }
+
+    public Set<String> getIds() {
+        Set<String> ids = new TreeSet<>(sources.keySet());
+        ids.addAll(watched.keySet());
+        return Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * @return Quelle der Vorlage oder {@code null}, wenn die ID nicht registriert ist
+     */
+    public String getSource(String id) {
+        Path file = watched.get(id);
+        return file != null ? file.toString() : sources.get(id);
+    }
+
+    /**
+     * {@code true}, wenn die Vorlage aus dem überwachten Verzeichnis kommt; neue Stände
+     * werden dann vom {@link TemplateWatcher} eingespielt statt beim Zugriff geprüft.
+     */
+    public boolean isWatched(String id) {
+        return watched.containsKey(id);
+    }
+
+    void registerWatched(String id, Path file) {
+        watched.put(id, file);
+    }
+
+    void unregisterWatched(String id) {
+        watched.remove(id);
+    }
+}
@@ -0,0 +1,185 @@
+package com.wohngeld.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Überwacht das Vorlagenverzeichnis ({@code wohngeld.templates.watch-directory}) mit einem NIO
+ * {@link WatchService}. Eine Datei {@code <id>.pdf} registriert bzw. überschreibt die Vorlage {@code <id>}
+ * in der {@link TemplateRegistry}; so kann eine neue Formularversion ohne Redeploy eingespielt werden.
+ *
+ * Nach einer Änderung wird kurz gewartet, bis keine weiteren Ereignisse kommen, dann wird die Datei
+ * im Hintergrund geladen, indiziert und atomar im {@link TemplateCache} ausgetauscht. Lässt sich die
+ * Datei nicht laden (z.B. noch unvollständig), bleibt die bisherige Version aktiv. Dateien, die beim Start
+ * schon im Verzeichnis liegen, durchlaufen denselben Weg (synchron, vor der ersten Anfrage); eine defekte
+ * oder unpassende Datei wird dabei übersprungen und die Vorlage weiter aus der Konfiguration geladen.
+ * Neue Stände am besten unter anderem Namen schreiben und in das Verzeichnis verschieben.
+ */
+@Component
+@Slf4j
+public class TemplateWatcher {
+
+    private static final String SUFFIX = ".pdf";
+
+    private final TemplateRegistry registry;
+    private final TemplateCache templateCache;
+    private final Path directory;
+    private final long quietPeriodMs;
+
+    private final Map<String, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private ScheduledExecutorService reloader;
+
+    public TemplateWatcher(TemplateRegistry registry,
+                           TemplateCache templateCache,
+                           @Value("${wohngeld.templates.watch-directory:}") String directory,
+                           @Value("${wohngeld.templates.watch-quiet-period-ms:500}") long quietPeriodMs) {
+        this.registry = registry;
+        this.templateCache = templateCache;
+        this.directory = directory.isBlank() ? null : Path.of(directory).toAbsolutePath().normalize();
+        this.quietPeriodMs = quietPeriodMs;
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        scan();
+
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+        reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "template-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread watcherThread = new Thread(this::watch, "template-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        log.info("Vorlagenverzeichnis wird überwacht: {} ({} Vorlagen)", directory, countWatched());
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads the files already present through the same swap as a change, so a file only becomes the
+     * template source once it loaded and fits the field mapper.
+     */
+    private void scan() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                reload(idOf(file), file);
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        rescan();
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    if (file.getFileName().toString().endsWith(SUFFIX)) {
+                        schedule(file);
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Vorlagenverzeichnis {} ist nicht mehr erreichbar, Überwachung beendet", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutdown
+        }
+    }
+
+    /**
+     * Events were lost; re-check every file in the directory. A failed listing only skips this rescan.
+     */
+    private void rescan() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            files.forEach(this::schedule);
+        } catch (IOException | DirectoryIteratorException e) {
+            log.warn("Vorlagenverzeichnis {} konnte nach verlorenen Ereignissen nicht gelesen werden: {}",
+                    directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Debounces the burst of events a single copy produces; only the last one triggers a reload.
+     */
+    private void schedule(Path file) {
+        String id = idOf(file);
+        ScheduledFuture<?> previous = pending.put(id,
+                reloader.schedule(() -> reload(id, file), quietPeriodMs, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private void reload(String id, Path file) {
+        pending.remove(id);
+        if (!Files.exists(file)) {
+            registry.unregisterWatched(id);
+            templateCache.evict(id);
+            log.info("Vorlage {} aus dem überwachten Verzeichnis entfernt, Quelle jetzt: {}",
+                    id, registry.getSource(id));
+            return;
+        }
+
+        try {
+            // Registers the file only once the new version loaded; a broken file leaves the old source active
+            PdfTemplate template = templateCache.swap(id, file);
+            log.info("Vorlage {} aktiv: Version {}", id, template.getVersion());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Neuer Stand der Vorlage {} konnte nicht geladen werden, bisherige Version bleibt aktiv: {}",
+                    id, e.getMessage());
+        }
+    }
+
+    private long countWatched() {
+        return registry.getIds().stream().filter(registry::isWatched).count();
+    }
+
+    private static String idOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - SUFFIX.length());
+    }
+}
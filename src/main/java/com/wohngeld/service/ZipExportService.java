@@ -0,0 +1,69 @@
+package com.wohngeld.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Schreibt mehrere erzeugte PDFs als ZIP direkt in einen Ausgabestrom.
+ * Jede Datei wird beim Schreiben aus der Ablage ({@link PdfStorageService}) gelesen;
+ * weder das Archiv noch die PDFs werden im Speicher oder als Temp-Datei gesammelt.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ZipExportService {
+
+    private final PdfStorageService storageService;
+
+    /**
+     * @return Anzahl der geschriebenen Dateien
+     */
+    public int writeZip(List<String> filenames, OutputStream out) throws IOException {
+        int written = 0;
+        Set<String> entryNames = new HashSet<>();
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // PDFs are compressed already; spend as little CPU as possible on the archive
+        zip.setLevel(Deflater.BEST_SPEED);
+
+        for (String filename : filenames) {
+            Path path = storageService.resolve(filename);
+            if (path == null) {
+                log.warn("ZIP-Export: Datei nicht gefunden, übersprungen: {}", filename);
+                continue;
+            }
+
+            zip.putNextEntry(new ZipEntry(uniqueEntryName(filename, entryNames)));
+            Files.copy(path, zip);
+            zip.closeEntry();
+            written++;
+        }
+
+        zip.finish();
+        zip.flush();
+        log.info("ZIP-Export: {} von {} Dateien geschrieben", written, filenames.size());
+        return written;
+    }
+
+    private String uniqueEntryName(String filename, Set<String> entryNames) {
+        String name = Path.of(filename).getFileName().toString();
+        String candidate = name;
+        int counter = 2;
+        while (!entryNames.add(candidate)) {
+            candidate = name.replaceFirst("(\\.pdf)?$", "_" + counter++ + "$1");
+        }
+        return candidate;
+    }
+}
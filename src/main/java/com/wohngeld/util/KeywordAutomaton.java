@@ -0,0 +1,206 @@
+package com.wohngeld.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick-Automat über einer festen Menge von Stichwörtern.
+ *
+ * Ein Durchlauf über den Text liefert alle darin enthaltenen Stichwörter auf einmal ({@link #match});
+ * danach ist jede Abfrage ein Bit-Test statt einer {@code String.contains}-Suche pro Stichwort.
+ * Das Ergebnis entspricht genau {@code text.contains(stichwort.toLowerCase())} für jedes Stichwort
+ * ({@link #scan} ist diese frühere lineare Suche, als Referenz für Vergleiche).
+ *
+ * Die Übergänge sind vollständig als Tabelle über dem Alphabet der Stichwörter aufgelöst; Zeichen, die in
+ * keinem Stichwort vorkommen, führen immer zurück in den Startzustand. Der Automat ist unveränderlich
+ * und kann von beliebig vielen Threads gleichzeitig benutzt werden.
+ */
+public final class KeywordAutomaton {
+
+    private static final int LATIN1 = 256;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final int keywordCount;
+
+    // Alphabet: index 0 is every character that does not occur in any keyword
+    private final int[] latin1Classes = new int[LATIN1];
+    private final Map<Character, Integer> otherClasses = new HashMap<>();
+    private final int alphabetSize;
+
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private KeywordAutomaton(Collection<String> original) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>();
+        for (String keyword : original) {
+            unique.add(keyword.toLowerCase());
+        }
+        List<String> keywords = new ArrayList<>(unique);
+        keywordCount = keywords.size();
+        for (int id = 0; id < keywords.size(); id++) {
+            ids.put(keywords.get(id), id);
+        }
+        // Callers may spell a keyword in any case, as with the previous per-call toLowerCase()
+        for (String keyword : original) {
+            ids.putIfAbsent(keyword, ids.get(keyword.toLowerCase()));
+        }
+
+        int classes = 1;
+        for (String keyword : keywords) {
+            for (char c : keyword.toCharArray()) {
+                if (charClass(c) == 0) {
+                    if (c < LATIN1) {
+                        latin1Classes[c] = classes++;
+                    } else {
+                        otherClasses.put(c, classes++);
+                    }
+                }
+            }
+        }
+        alphabetSize = classes;
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        trie.add(newRow());
+        terminal.add(new ArrayList<>());
+        for (int id = 0; id < keywords.size(); id++) {
+            int state = 0;
+            for (char c : keywords.get(id).toCharArray()) {
+                int cls = charClass(c);
+                if (trie.get(state)[cls] == 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newRow());
+                    terminal.add(new ArrayList<>());
+                }
+                state = trie.get(state)[cls];
+            }
+            terminal.get(state).add(id);
+        }
+
+        // Failure links, breadth first; missing edges are filled in so matching never follows a link
+        int states = trie.size();
+        transitions = new int[states * alphabetSize];
+        outputs = new int[states][];
+        int[] fail = new int[states];
+        outputs[0] = toArray(terminal.get(0));
+
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int next = trie.get(0)[cls];
+            transitions[cls] = next;
+            if (next != 0) {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            LinkedHashSet<Integer> out = new LinkedHashSet<>(terminal.get(state));
+            for (int id : outputs[fail[state]]) {
+                out.add(id);
+            }
+            outputs[state] = out.stream().mapToInt(Integer::intValue).toArray();
+
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = trie.get(state)[cls];
+                int fallback = transitions[fail[state] * alphabetSize + cls];
+                if (next != 0) {
+                    fail[next] = fallback;
+                    transitions[state * alphabetSize + cls] = next;
+                    queue.add(next);
+                } else {
+                    transitions[state * alphabetSize + cls] = fallback;
+                }
+            }
+        }
+    }
+
+    /**
+     * Baut den Automaten; Stichwörter werden wie bisher mit {@link String#toLowerCase()} verglichen,
+     * doppelte zählen einmal.
+     */
+    public static KeywordAutomaton of(Collection<String> keywords) {
+        return new KeywordAutomaton(keywords);
+    }
+
+    /**
+     * Sucht alle Stichwörter in einem Durchlauf über {@code text}.
+     */
+    public Matches match(String text) {
+        BitSet found = new BitSet(keywordCount);
+        for (int id : outputs[0]) {
+            found.set(id);
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * alphabetSize + charClass(text.charAt(i))];
+            for (int id : outputs[state]) {
+                found.set(id);
+            }
+        }
+        return keywords -> {
+            for (String keyword : keywords) {
+                Integer id = ids.get(keyword);
+                if (id == null) {
+                    throw new IllegalArgumentException("Stichwort nicht im Automaten: " + keyword);
+                }
+                if (found.get(id)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Die frühere lineare Suche: ein {@code String.contains} pro Stichwort und Abfrage.
+     */
+    public static Matches scan(String text) {
+        return keywords -> {
+            for (String keyword : keywords) {
+                if (text.contains(keyword.toLowerCase())) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    public int size() {
+        return keywordCount;
+    }
+
+    private int charClass(char c) {
+        if (c < LATIN1) {
+            return latin1Classes[c];
+        }
+        return otherClasses.getOrDefault(c, 0);
+    }
+
+    private int[] newRow() {
+        return new int[alphabetSize];
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gefundene Stichwörter eines Textes.
+     */
+    @FunctionalInterface
+    public interface Matches {
+        /**
+         * @return ob mindestens eines der Stichwörter im Text vorkommt
+         */
+        boolean containsAny(String... keywords);
+    }
+}
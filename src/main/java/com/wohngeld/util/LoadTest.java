@@ -0,0 +1,124 @@
+package com.wohngeld.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lasttest gegen eine laufende Instanz: schickt viele unterschiedliche Anträge gleichzeitig an
+ * {@code POST /api/v2/fill-pdf} (Accept: application/pdf) und gibt Durchsatz, p50/p99 und Statuscodes aus.
+ * Jeder Antrag bekommt einen eigenen Namen, damit weder Cache noch Single-Flight greifen.
+ *
+ * Zum Vergleich zweimal starten, einmal mit {@code VIRTUAL_THREADS=false} (Thread pro Anfrage)
+ * und einmal mit {@code VIRTUAL_THREADS=true} (virtuelle Threads, Füllen auf dem Plattform-Pool), beide
+ * Male auf derselben Java-21-Laufzeit.
+ *
+ * Aufruf: LoadTest [basis-url] [gleichzeitig] [anfragen] [benutzer:passwort]
+ */
+public class LoadTest {
+
+    private static final int WARMUP = 50;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        String authorization = args.length > 3
+                ? "Basic " + Base64.getEncoder().encodeToString(args[3].getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ObjectMapper mapper = new ObjectMapper();
+
+        HttpRequest sampleRequest = request(baseUrl + "/api/v2/data/sample", authorization).GET().build();
+        ObjectNode sample = (ObjectNode) mapper.readTree(
+                client.send(sampleRequest, HttpResponse.BodyHandlers.ofString()).body());
+
+        System.out.println("Lasttest: " + baseUrl + " (" + concurrency + " gleichzeitig, " + requests + " Anfragen)");
+        System.out.println("=".repeat(80));
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            run(client, mapper, sample, baseUrl, authorization, executor, WARMUP, "warmup");
+            Result result = run(client, mapper, sample, baseUrl, authorization, executor, requests, "run");
+
+            System.out.printf("Durchsatz: %8.1f Anfragen/s (%d in %d ms)%n",
+                    requests * 1000.0 / result.wallMs, requests, result.wallMs);
+            System.out.printf("Latenz:    p50 %6d ms | p90 %6d ms | p99 %6d ms | max %6d ms%n",
+                    result.percentile(50), result.percentile(90), result.percentile(99), result.percentile(100));
+            System.out.println("Status:    " + result.statusCounts);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Result run(HttpClient client, ObjectMapper mapper, ObjectNode sample, String baseUrl,
+                              String authorization, ExecutorService executor, int requests,
+                              String prefix) throws Exception {
+        AtomicInteger sequence = new AtomicInteger();
+        long[] latencies = new long[requests];
+        Map<Integer, Integer> statusCounts = new TreeMap<>();
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                ObjectNode body = sample.deepCopy();
+                ((ObjectNode) body.get("antragsteller"))
+                        .put("familienname", "Last" + prefix + sequence.incrementAndGet());
+
+                HttpRequest request = request(baseUrl + "/api/v2/fill-pdf", authorization)
+                        .header("Content-Type", "application/json")
+                        .header("Accept", "application/pdf")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                        .build();
+
+                long requestStart = System.nanoTime();
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                latencies[index] = (System.nanoTime() - requestStart) / 1_000_000;
+                return response.statusCode();
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            statusCounts.merge(future.get(), 1, Integer::sum);
+        }
+        long wallMs = (System.nanoTime() - start) / 1_000_000;
+
+        Arrays.sort(latencies);
+        return new Result(latencies, wallMs, statusCounts);
+    }
+
+    private static HttpRequest.Builder request(String url, String authorization) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60));
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        return builder;
+    }
+
+    private record Result(long[] sortedLatencies, long wallMs, Map<Integer, Integer> statusCounts) {
+        long percentile(int p) {
+            int index = (int) Math.ceil(p / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+    }
+}
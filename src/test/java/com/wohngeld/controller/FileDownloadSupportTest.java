@@ -0,0 +1,210 @@
+package com.wohngeld.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileDownloadSupportTest {
+
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+    private static final String HASH = "ab".repeat(32);
+    private static final String ETAG = "\"" + HASH + "\"";
+
+    @TempDir
+    Path directory;
+
+    private final FileDownloadSupport support = new FileDownloadSupport(100);
+    private byte[] content;
+    private Path file;
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        content = "%PDF-1.7 0123456789 abcdefghij".getBytes(StandardCharsets.US_ASCII);
+        file = directory.resolve("antrag.pdf");
+        Files.write(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(LAST_MODIFIED));
+    }
+
+    @Test
+    void parsesSingleRanges() {
+        assertArrayEquals(new long[]{0, 9}, FileDownloadSupport.parseRange("bytes=0-9", 100));
+        assertArrayEquals(new long[]{90, 99}, FileDownloadSupport.parseRange("bytes=90-", 100));
+        assertArrayEquals(new long[]{90, 99}, FileDownloadSupport.parseRange("bytes=-10", 100));
+        assertArrayEquals(new long[]{0, 99}, FileDownloadSupport.parseRange("bytes=-500", 100));
+        assertArrayEquals(new long[]{50, 99}, FileDownloadSupport.parseRange("bytes=50-500", 100));
+        assertArrayEquals(new long[]{5, 5}, FileDownloadSupport.parseRange("bytes=5-5", 100));
+    }
+
+    @Test
+    void ignoresInvalidOrUnsupportedRanges() {
+        assertEquals(0, FileDownloadSupport.parseRange("bytes=5-3", 100).length);
+        assertEquals(0, FileDownloadSupport.parseRange("bytes=abc", 100).length);
+        assertEquals(0, FileDownloadSupport.parseRange("bytes=-", 100).length);
+        assertEquals(0, FileDownloadSupport.parseRange("bytes=0-1,5-6", 100).length);
+        assertEquals(0, FileDownloadSupport.parseRange("items=0-1", 100).length);
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertNull(FileDownloadSupport.parseRange("bytes=100-", 100));
+        assertNull(FileDownloadSupport.parseRange("bytes=150-200", 100));
+        assertNull(FileDownloadSupport.parseRange("bytes=-0", 100));
+        assertNull(FileDownloadSupport.parseRange("bytes=0-", 0));
+    }
+
+    @Test
+    void sendsWholeFileWithKnownHashAsEtag() throws IOException {
+        MockHttpServletResponse response = send(get());
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals(content.length, response.getContentLengthLong());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void hashesFileWithoutKnownHash() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        support.send(file, null, "application/pdf", "attachment", get(), response);
+
+        String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        assertEquals("\"" + expected + "\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void notModifiedForMatchingEtag() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", " + ETAG);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void notModifiedSinceLastModified() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED + 500);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, send(request).getStatus());
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, LAST_MODIFIED);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void sendsRequestedRange() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=9-18");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertEquals("bytes 9-18/" + content.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 9, 19), response.getContentAsByteArray());
+    }
+
+    @Test
+    void invalidRangeSendsWholeFile() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-3");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void unsatisfiableRangeIsRejected() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + content.length + "-");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatus());
+        assertEquals("bytes */" + content.length, response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void ifRangeWithCurrentEtagSendsRange() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT, response.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 4), response.getContentAsByteArray());
+    }
+
+    @Test
+    void ifRangeWithStaleEtagSendsWholeFile() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void ifRangeWithOlderDateSendsWholeFile() throws IOException {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-3");
+        request.addHeader(HttpHeaders.IF_RANGE, LAST_MODIFIED - 60_000);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void missingFileIsNotFound() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        support.send(directory.resolve("fehlt.pdf"), HASH, "application/pdf", "attachment", get(), response);
+
+        assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        support.send(file, HASH, "application/pdf", "attachment; filename=\"antrag.pdf\"", request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/download/antrag.pdf");
+    }
+}
@@ -0,0 +1,168 @@
+package com.wohngeld.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Hilfsprogramm zum Vergleichen der Feldklassifizierung mit Stichwort-Automat und mit der früheren
+ * linearen Suche ({@link PdfFieldAnalyzer#withLinearScan()}).
+ *
+ * Erzeugt einen großen synthetischen Korpus an Feldnamen aus Stichwörtern, Teilwörtern, Abschnitts- und
+ * Personenangaben (optional ergänzt um echte Namen aus einer Datei, eine Zeile pro Feld, z.B. die
+ * {@code pdf_fields.txt} des Hilfsprogramms {@code util.PdfFieldAnalyzer}), prüft, dass Kategorie,
+ * Abschnitt, Person und empfohlener Wert für jeden Namen übereinstimmen, und misst danach beide Varianten.
+ * Bei Abweichungen endet das Programm mit Exit-Code 1. Liegt im Test-Quellbaum des Service-Pakets, weil
+ * {@link PdfFieldAnalyzer#classify}, {@link PdfFieldAnalyzer#determineValueForField} und
+ * {@link PdfFieldAnalyzer#withLinearScan()} paketintern sind.
+ *
+ * Aufruf: FieldClassificationBenchmark [anzahl-namen] [durchläufe] [feldnamen.txt]
+ */
+public class FieldClassificationBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final long SEED = 20260101L;
+
+    private static final String[] FRAGMENTS = {
+            "behörde", "behoerde", "dienststelle", "amt", "wohngeldbehörde", "erstantrag", "weiterleistung",
+            "folgeantrag", "aktenzeichen", "wohngeldnummer", "antragsdatum", "name", "vorname", "nachname",
+            "familienname", "geburt", "geburtsdatum", "geb.datum", "geboren am", "geburtsort", "geb.ort",
+            "geschlecht", "männlich", "maennlich", "weiblich", "divers", "familienstand", "ledig", "verheiratet",
+            "geschieden", "verwitwet", "getrennt", "lebenspartner", "straße", "strasse", "str.", "hausnummer",
+            "hausnr", "haus-nr", "nr.", "nr", "plz", "postleitzahl", "ort", "stadt", "wohnort", "anschrift",
+            "adresse", "wohnung", "wohnfläche", "wohnflaeche", "qm", "größe", "zimmer", "räume", "raeume",
+            "anzahl", "einzug", "eingezogen", "seit wann", "bezug", "baujahr", "vermieter", "mieter", "miete",
+            "kaltmiete", "grundmiete", "miete ohne", "warmmiete", "gesamtmiete", "miete gesamt", "insgesamt",
+            "nebenkosten", "betriebskosten", "heizkosten", "heizung", "art", "warmwasser", "einkommen",
+            "verdienst", "gehalt", "lohn", "brutto", "netto", "rente", "kindergeld", "unterhalt", "erwerbstätig",
+            "erwerbstaetig", "nicht", "arbeitslos", "rentner", "student", "schüler", "schueler", "selbständig",
+            "selbststaendig", "iban", "bic", "bank", "konto", "kontoinhaber", "kreditinstitut", "geldinstitut",
+            "ja", "nein", "yes", "no", "wohngeld ab", "ab datum", "leistung ab", "bewilligung ab", "weiter",
+            "folge", "datum", "bezeichnung", "staatsangehörigkeit", "staatsangehoerigkeit", "nationalität",
+            "telefon", "tel.", "email", "e-mail", "person", "haushalt", "antragsteller", "ehegatte", "partner",
+            "abschnitt", "kontrollkästchen", "textfeld", "feld", "zeile", "betrag", "summe", "angaben", "sonstiges",
+            "topmostsubform[0]", "page1[0]", "seite", "kästchen", "option", "auswahl"
+    };
+    private static final String[] SEPARATORS = {".", "_", " ", "-", "", "[0].", "/"};
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        List<String> names = corpus(count, new Random(SEED));
+        if (args.length > 2) {
+            names.addAll(Files.readAllLines(Path.of(args[2])));
+        }
+
+        PdfFieldAnalyzer automaton = new PdfFieldAnalyzer();
+        PdfFieldAnalyzer linear = PdfFieldAnalyzer.withLinearScan();
+
+        System.out.println("Feldklassifizierung: " + names.size() + " Namen, " + iterations + " Durchläufe");
+        System.out.println("=".repeat(80));
+
+        int mismatches = compare(names, automaton, linear);
+        if (mismatches > 0) {
+            System.out.println("ABWEICHUNGEN: " + mismatches);
+            System.exit(1);
+        }
+        System.out.println("Ergebnisse identisch (Kategorie, Abschnitt, Person, Kurzname, empfohlener Wert)\n");
+
+        run("Linear", names, linear, iterations);
+        run("Automat", names, automaton, iterations);
+    }
+
+    private static int compare(List<String> names, PdfFieldAnalyzer automaton, PdfFieldAnalyzer linear) {
+        int mismatches = 0;
+        for (String name : names) {
+            for (boolean checkbox : new boolean[]{false, true}) {
+                String type = checkbox ? "PDCheckBox" : "PDTextField";
+                PdfFieldAnalyzer.FieldInfo expected = linear.classify(name, type, checkbox);
+                PdfFieldAnalyzer.FieldInfo actual = automaton.classify(name, type, checkbox);
+                String expectedValue = linear.determineValueForField(expected);
+                String actualValue = automaton.determineValueForField(actual);
+
+                if (!expected.equals(actual) || !Objects.equals(expectedValue, actualValue)) {
+                    if (mismatches < 20) {
+                        System.out.printf("%s [%s]: %s / %s, erwartet %s / %s%n", name, type,
+                                actual.getCategory(), actualValue, expected.getCategory(), expectedValue);
+                    }
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    private static void run(String label, List<String> names, PdfFieldAnalyzer analyzer, int iterations) {
+        for (int i = 0; i < WARMUP; i++) {
+            classifyAll(names, analyzer);
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += classifyAll(names, analyzer);
+        }
+        double nsPerField = (double) (System.nanoTime() - start) / iterations / names.size();
+
+        System.out.printf("%-8s | %8.0f ns/Feld | %10.0f Felder/s | Prüfsumme %d%n",
+                label, nsPerField, 1_000_000_000.0 / nsPerField, checksum);
+    }
+
+    private static long classifyAll(List<String> names, PdfFieldAnalyzer analyzer) {
+        long checksum = 0;
+        for (int i = 0; i < names.size(); i++) {
+            boolean checkbox = (i & 1) == 1;
+            PdfFieldAnalyzer.FieldInfo info = analyzer.classify(names.get(i), "PDField", checkbox);
+            String value = analyzer.determineValueForField(info);
+            checksum += info.getCategory().hashCode() + (value != null ? value.hashCode() : 0);
+        }
+        return checksum;
+    }
+
+    /**
+     * Feldnamen wie in AcroForms: Pfadteile aus Stichwörtern, abgeschnittenen Stichwörtern und Füllwörtern,
+     * mit Abschnitts- und Personenangaben, gemischter Groß-/Kleinschreibung und Zufallszeichen.
+     */
+    static List<String> corpus(int count, Random random) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder name = new StringBuilder();
+            switch (random.nextInt(4)) {
+                case 0 -> name.append((char) ('A' + random.nextInt(6))).append('.');
+                case 1 -> name.append("Abschnitt ").append(1 + random.nextInt(20)).append('_');
+                default -> {
+                }
+            }
+            int parts = 1 + random.nextInt(5);
+            for (int p = 0; p < parts; p++) {
+                if (p > 0) {
+                    name.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+                }
+                String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                switch (random.nextInt(6)) {
+                    case 0 -> fragment = fragment.substring(0, 1 + random.nextInt(fragment.length()));
+                    case 1 -> fragment = Character.toUpperCase(fragment.charAt(0)) + fragment.substring(1);
+                    case 2 -> fragment = fragment.toUpperCase();
+                    case 3 -> fragment = fragment + (char) ('a' + random.nextInt(26));
+                    default -> {
+                    }
+                }
+                name.append(fragment);
+            }
+            switch (random.nextInt(5)) {
+                case 0 -> name.append("_").append(1 + random.nextInt(10));
+                case 1 -> name.append(" Person ").append(1 + random.nextInt(10));
+                case 2 -> name.append("[").append(random.nextInt(3)).append("]");
+                default -> {
+                }
+            }
+            names.add(name.toString());
+        }
+        return names;
+    }
+}
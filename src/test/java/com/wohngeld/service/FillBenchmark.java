@@ -0,0 +1,90 @@
+package com.wohngeld.service;
+
+import com.wohngeld.WohngeldApplication;
+import com.wohngeld.mapper.WohngeldAntragMapper;
+import com.wohngeld.model.Compression;
+import com.wohngeld.model.FillMode;
+import com.wohngeld.model.FillOptions;
+import com.wohngeld.model.OutputMode;
+import com.wohngeld.model.PdfResult;
+import com.wohngeld.model.WohngeldAntragRequest;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Hilfsprogramm zum Vergleichen der Füll-Modi (mit und ohne Flatten), der inkrementellen Ausgabe und der
+ * Kompressionsstufen. Startet den Anwendungskontext ohne Webserver und füllt die Beispieldaten über
+ * {@link PdfService#render}, also über denselben Weg wie eine echte Anfrage (Feld-Index, Speicherbudget,
+ * Füll-Modus, Flatten, Speichern mit {@link OutputCompression}), nur ohne Cache und Ablage.
+ *
+ * Aufruf: FillBenchmark [vorlage-id-oder-pfad] [durchläufe]
+ */
+public class FillBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    public static void main(String[] args) throws IOException {
+        String templatePath = args.length > 0 ? args[0] : null;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(WohngeldApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("wohngeld.warmup.fills=0")
+                .run()) {
+            PdfService pdfService = context.getBean(PdfService.class);
+            PdfTemplate template = context.getBean(TemplateCache.class).getFillable(templatePath);
+            WohngeldAntragRequest request = context.getBean(WohngeldAntragMapper.class)
+                    .toInternal(context.getBean(SampleDataFactory.class).createSampleDataDTO());
+
+            System.out.println("Benchmark: " + template.getKey() + " (" + iterations + " Durchläufe)");
+            System.out.println("=".repeat(80));
+
+            for (FillMode mode : FillMode.values()) {
+                for (boolean flatten : new boolean[]{false, true}) {
+                    run(pdfService, request, template, options(mode, flatten, OutputMode.FULL, Compression.STANDARD),
+                            iterations);
+                }
+                run(pdfService, request, template, options(mode, false, OutputMode.INCREMENTAL, null), iterations);
+            }
+
+            System.out.println("\n=== KOMPRESSION (EAGER) ===\n");
+            for (Compression compression : Compression.values()) {
+                run(pdfService, request, template, options(FillMode.EAGER, false, OutputMode.FULL, compression),
+                        iterations);
+            }
+        }
+    }
+
+    private static FillOptions options(FillMode mode, boolean flatten, OutputMode output, Compression compression) {
+        return FillOptions.builder()
+                .mode(mode)
+                .flatten(flatten)
+                .output(output)
+                .compression(compression)
+                .build();
+    }
+
+    private static void run(PdfService pdfService, WohngeldAntragRequest request, PdfTemplate template,
+                            FillOptions options, int iterations) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            pdfService.render(request, template, options, DISCARD);
+        }
+
+        long size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            PdfResult result = pdfService.render(request, template, options, DISCARD);
+            size = result.getSizeBytes();
+        }
+        double avgMs = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+        System.out.printf("%-8s | %-7s | %-11s | %-8s | %8.2f ms/PDF | %8.1f PDF/s | %8d Bytes%n",
+                options.getMode(), options.isFlatten() ? "flatten" : "-", options.getOutput(),
+                options.getCompression() != null ? options.getCompression() : "-", avgMs, 1000.0 / avgMs, size);
+    }
+}
@@ -0,0 +1,144 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.PdfResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FillCoalescerTest {
+
+    private static final byte[] PDF = "%PDF-1.7 gefüllt".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FillCoalescer coalescer = new FillCoalescer(registry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void abortedLeaderResponseDoesNotFailFollower() throws Exception {
+        CountDownLatch leaderFilling = new CountDownLatch(1);
+        AtomicInteger fills = new AtomicInteger();
+
+        Future<FillCoalescer.Flight> leader = executor.submit(() -> {
+            FillCoalescer.Flight flight = coalescer.execute("hash", () -> {
+                fills.incrementAndGet();
+                leaderFilling.countDown();
+                awaitFollower();
+                return new FillCache.Entry(PdfResult.builder().filename("a.pdf").build(), PDF);
+            });
+            // The leader's client went away: its own response fails after the shared fill
+            write(flight, new AbortedResponse());
+            return flight;
+        });
+        assertTrue(leaderFilling.await(5, TimeUnit.SECONDS));
+
+        ByteArrayOutputStream followerResponse = new ByteArrayOutputStream();
+        Future<FillCoalescer.Flight> follower = executor.submit(() -> {
+            FillCoalescer.Flight flight = coalescer.execute("hash", () -> {
+                fills.incrementAndGet();
+                return new FillCache.Entry(PdfResult.builder().filename("b.pdf").build(), PDF);
+            });
+            write(flight, followerResponse);
+            return flight;
+        });
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IOException.class, leaderFailure.getCause());
+
+        FillCoalescer.Flight followerFlight = follower.get(5, TimeUnit.SECONDS);
+        assertFalse(followerFlight.leader());
+        assertEquals("a.pdf", followerFlight.entry().result().getFilename());
+        assertArrayEquals(PDF, followerResponse.toByteArray());
+        assertEquals(1, fills.get());
+    }
+
+    @Test
+    void failedFillReachesFollower() throws Exception {
+        CountDownLatch leaderFilling = new CountDownLatch(1);
+
+        Future<FillCoalescer.Flight> leader = executor.submit(() -> coalescer.execute("hash", () -> {
+            leaderFilling.countDown();
+            awaitFollower();
+            throw new IOException("Vorlage beschädigt");
+        }));
+        assertTrue(leaderFilling.await(5, TimeUnit.SECONDS));
+
+        Future<FillCoalescer.Flight> follower = executor.submit(() -> coalescer.execute("hash",
+                () -> new FillCache.Entry(PdfResult.builder().build(), PDF)));
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerFailure = assertThrows(ExecutionException.class,
+                () -> follower.get(5, TimeUnit.SECONDS));
+        assertEquals("Vorlage beschädigt", leaderFailure.getCause().getMessage());
+        assertEquals("Vorlage beschädigt", followerFailure.getCause().getMessage());
+    }
+
+    @Test
+    void finishedFlightIsNotReused() throws Exception {
+        AtomicInteger fills = new AtomicInteger();
+        FillCoalescer.Fill fill = () -> {
+            fills.incrementAndGet();
+            return new FillCache.Entry(PdfResult.builder().build(), PDF);
+        };
+
+        assertTrue(coalescer.execute("hash", fill).leader());
+        assertTrue(coalescer.execute("hash", fill).leader());
+        assertEquals(2, fills.get());
+        assertEquals(0.0, registry.get("wohngeld.fill.in-flight").gauge().value());
+    }
+
+    /**
+     * Hält den Füllvorgang an, bis sich ein zweiter Aufrufer angehängt hat.
+     */
+    private void awaitFollower() throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("wohngeld.fill.coalesced").counter().count() < 1) {
+            if (System.nanoTime() > deadline) {
+                throw new IOException("Kein zweiter Aufrufer");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void write(FillCoalescer.Flight flight, OutputStream response) throws IOException {
+        response.write(flight.entry().content());
+        response.flush();
+    }
+
+    private static final class AbortedResponse extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+}
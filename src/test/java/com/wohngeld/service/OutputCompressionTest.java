@@ -0,0 +1,106 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.Compression;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutputCompressionTest {
+
+    private static final byte[] CONTENT = "BT /F1 12 Tf 72 720 Td (Wohngeldantrag) Tj ET\n".repeat(50)
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void mapsLevelsToCompressParameters() {
+        assertSame(CompressParameters.NO_COMPRESSION, OutputCompression.parameters(Compression.NONE));
+        assertSame(CompressParameters.DEFAULT_COMPRESSION, OutputCompression.parameters(Compression.STANDARD));
+
+        CompressParameters maximum = OutputCompression.parameters(Compression.MAXIMUM);
+        assertTrue(maximum.isCompress());
+        assertEquals(1000, maximum.getObjectStreamSize());
+    }
+
+    @Test
+    void compressesUnfilteredPageContent() throws IOException {
+        try (PDDocument document = documentWithContent()) {
+            COSStream stream = contentStream(document);
+            assertNull(stream.getFilters());
+
+            OutputCompression.compressUnfilteredStreams(document);
+
+            assertEquals(COSName.FLATE_DECODE, stream.getFilters());
+            assertArrayEquals(CONTENT, decoded(stream));
+        }
+    }
+
+    @Test
+    void maximumKeepsContentAndIsSmallerThanNone() throws IOException {
+        byte[] none = save(Compression.NONE);
+        byte[] maximum = save(Compression.MAXIMUM);
+
+        assertTrue(maximum.length < none.length, maximum.length + " >= " + none.length);
+        for (byte[] saved : new byte[][]{none, maximum}) {
+            try (PDDocument reloaded = Loader.loadPDF(saved)) {
+                assertEquals(1, reloaded.getNumberOfPages());
+                assertArrayEquals(CONTENT, decoded(contentStream(reloaded)));
+            }
+        }
+    }
+
+    @Test
+    void noneLeavesStreamsUnfiltered() throws IOException {
+        byte[] saved = save(Compression.NONE);
+
+        assertFalse(new String(saved, StandardCharsets.ISO_8859_1).contains("/ObjStm"));
+        try (PDDocument reloaded = Loader.loadPDF(saved)) {
+            assertNull(contentStream(reloaded).getFilters());
+        }
+    }
+
+    private static byte[] save(Compression compression) throws IOException {
+        try (PDDocument document = documentWithContent()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            OutputCompression.save(document, out, compression);
+            return out.toByteArray();
+        }
+    }
+
+    private static PDDocument documentWithContent() throws IOException {
+        PDDocument document = new PDDocument();
+        PDPage page = new PDPage();
+        document.addPage(page);
+        COSStream stream = document.getDocument().createCOSStream();
+        try (OutputStream out = stream.createOutputStream()) {
+            out.write(CONTENT);
+        }
+        page.getCOSObject().setItem(COSName.CONTENTS, stream);
+        return document;
+    }
+
+    private static COSStream contentStream(PDDocument document) {
+        return (COSStream) document.getPage(0).getCOSObject().getDictionaryObject(COSName.CONTENTS);
+    }
+
+    private static byte[] decoded(COSStream stream) throws IOException {
+        try (InputStream in = stream.createInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.wohngeld.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PdfFieldAnalyzerTest {
+
+    private final PdfFieldAnalyzer automaton = new PdfFieldAnalyzer();
+    private final PdfFieldAnalyzer linear = PdfFieldAnalyzer.withLinearScan();
+
+    /**
+     * Deckt auch Stichwörter ab, die in den Regeln stehen, aber im Automaten fehlen: Der Automat wirft dann.
+     */
+    @Test
+    void automatonMatchesLinearScanForEveryRule() {
+        List<String> names = FieldClassificationBenchmark.corpus(20_000, new Random(20260101L));
+        names.addAll(List.of("Wohngeldbehörde Name", "Geburtsort", "Geb.Datum", "Haus-Nr.", "Wohnort",
+                "Miete gesamt", "Kontoinhaber", "Anzahl Personen im Haushalt", "Staatsangehörigkeit",
+                "Seit wann bewohnt", "Heizung Art", "Ehegatte Vorname", "Person 2 Nachname"));
+
+        for (String name : names) {
+            for (boolean checkbox : new boolean[]{false, true}) {
+                String type = checkbox ? "PDCheckBox" : "PDTextField";
+                PdfFieldAnalyzer.FieldInfo expected = linear.classify(name, type, checkbox);
+                PdfFieldAnalyzer.FieldInfo actual = automaton.classify(name, type, checkbox);
+
+                assertEquals(expected, actual, name);
+                assertEquals(linear.determineValueForField(expected), automaton.determineValueForField(actual),
+                        name + " [" + type + "]");
+            }
+        }
+    }
+
+    @Test
+    void classifiesTypicalFields() {
+        PdfFieldAnalyzer.FieldInfo iban = automaton.classify("Abschnitt 3_IBAN", "PDTextField", false);
+        assertEquals("BANK", iban.getCategory());
+        assertEquals(3, iban.getSectionNumber());
+        assertEquals("DE89 3704 0044 0532 0130 00", automaton.determineValueForField(iban));
+
+        PdfFieldAnalyzer.FieldInfo vorname = automaton.classify("A.Vorname", "PDTextField", false);
+        assertEquals("PERSON", vorname.getCategory());
+        assertEquals(1, vorname.getSectionNumber());
+        assertEquals("Max", automaton.determineValueForField(vorname));
+
+        PdfFieldAnalyzer.FieldInfo maennlich = automaton.classify("Geschlecht_männlich", "PDCheckBox", true);
+        assertEquals("PERSON", maennlich.getCategory());
+        assertEquals("true", automaton.determineValueForField(maennlich));
+    }
+
+    @Test
+    void leavesOtherPersonsEmpty() {
+        PdfFieldAnalyzer.FieldInfo partner = automaton.classify("Person 2 Vorname", "PDTextField", false);
+        assertEquals(2, partner.getPersonNumber());
+        assertNull(automaton.determineValueForField(partner));
+    }
+}
@@ -0,0 +1,116 @@
+package com.wohngeld.service;
+
+import com.wohngeld.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PdfFieldMapperTest {
+
+    private final PdfFieldMapper mapper = new PdfFieldMapper();
+
+    @Test
+    void layoutCoversEveryFieldOfEveryBranch() {
+        Set<String> written = new HashSet<>();
+        for (WohngeldAntragRequest request : branchRequests()) {
+            mapper.mapRequest((name, value) -> written.add(name), request);
+            // Throws for a field without slot, as it would for a real fill
+            mapper.createFillPlan(request);
+        }
+
+        Set<String> layout = new HashSet<>(mapper.getFieldNames());
+
+        Set<String> missing = new TreeSet<>(written);
+        missing.removeAll(layout);
+        assertEquals(Set.of(), missing, "Felder fehlen im Layout des PdfFieldMapper");
+
+        Set<String> unused = new TreeSet<>(layout);
+        unused.removeAll(written);
+        assertEquals(Set.of(), unused, "Layout enthält Felder, die kein Zweig schreibt");
+    }
+
+    @Test
+    void layoutHasNoDuplicateFields() {
+        List<String> names = mapper.getFieldNames();
+        assertEquals(names.size(), new HashSet<>(names).size());
+    }
+
+    /**
+     * All combinations of the variants of each section, so every conditional put is taken at least once.
+     */
+    private static List<WohngeldAntragRequest> branchRequests() {
+        List<AntragDaten> antraege = Arrays.asList(
+                null,
+                AntragDaten.builder().build(),
+                AntragDaten.builder().erstantrag(true).wohngeldnummer("WG-1").build(),
+                AntragDaten.builder().erstantrag(false).build(),
+                AntragDaten.builder().erstantrag(false).wohngeldnummer("WG-1").build());
+        List<Antragsteller> antragsteller = Arrays.asList(
+                null,
+                Antragsteller.builder().build(),
+                Antragsteller.builder()
+                        .vorname("Max").nachname("Mustermann").geburtsdatum("15.03.1985")
+                        .geschlecht("divers").familienstand("nichteheliche Lebenspartnerschaft")
+                        .erwerbsstatus("selbständig")
+                        .build());
+        List<Adresse> adressen = Arrays.asList(
+                null,
+                Adresse.builder().strasse("Musterstraße").hausnummer("42").plz("10115").ort("Berlin").build());
+        List<Wohnung> wohnungen = Arrays.asList(
+                null,
+                Wohnung.builder().build(),
+                Wohnung.builder().wohnflaecheQm(65.0).einzugsdatum("01.01.2023").wohnverhaeltnis("Eigentum")
+                        .verwandtschaftMitVermieter(true).mietpreisbindung(true).build());
+        List<Miete> mieten = Arrays.asList(
+                null,
+                Miete.builder().heizkosten(0.0).warmwasser(0.0).build(),
+                Miete.builder().gesamtmiete(900.0).heizkosten(80.0).warmwasser(20.0).build());
+        Einnahme einnahme = Einnahme.builder().art("Gehalt").bruttoBetrag(2200.0).turnus("jährlich").build();
+        List<Einkommen> einkommen = Arrays.asList(
+                null,
+                Einkommen.builder().build(),
+                Einkommen.builder().einnahmen(List.of()).bruttoeinkommenMonatlich(2200.0).steuern(true).build(),
+                Einkommen.builder().einnahmen(List.of()).bruttoeinkommenMonatlich(0.0).build(),
+                Einkommen.builder().einnahmen(List.of(einnahme)).build(),
+                Einkommen.builder().einnahmen(Collections.nCopies(6, einnahme)).build());
+        List<Bankverbindung> banken = Arrays.asList(
+                null,
+                Bankverbindung.builder().build(),
+                Bankverbindung.builder().iban("DE89 3704 0044 0532 0130 00").bank("Commerzbank").build(),
+                Bankverbindung.builder().iban("X".repeat(40)).build());
+
+        List<WohngeldAntragRequest> requests = new ArrayList<>();
+        for (AntragDaten antrag : antraege) {
+            for (Antragsteller a : antragsteller) {
+                for (Adresse adresse : adressen) {
+                    for (Wohnung wohnung : wohnungen) {
+                        for (Miete miete : mieten) {
+                            for (Einkommen e : einkommen) {
+                                for (Bankverbindung bank : banken) {
+                                    requests.add(WohngeldAntragRequest.builder()
+                                            .antrag(antrag)
+                                            .antragsteller(a)
+                                            .adresse(adresse)
+                                            .wohnung(wohnung)
+                                            .miete(miete)
+                                            .einkommen(e)
+                                            .bankverbindung(bank)
+                                            .build());
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,125 @@
+package com.wohngeld.service;
+
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResourceDeduplicatorTest {
+
+    private static final COSName F1 = COSName.getPDFName("F1");
+
+    @Test
+    void sharesEqualFontsAndContentStreams() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage first = page(document, helvetica(), "BT /F1 12 Tf (Hallo) Tj ET");
+            PDPage second = page(document, helvetica(), "BT /F1 12 Tf (Hallo) Tj ET");
+
+            ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+            deduplicator.deduplicate(first);
+            deduplicator.deduplicate(second);
+
+            assertSame(font(first), font(second));
+            assertSame(contents(first), contents(second));
+            assertEquals(2, deduplicator.getReplaced());
+        }
+    }
+
+    @Test
+    void keepsDifferentContent() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage first = page(document, helvetica(), "BT /F1 12 Tf (Hallo) Tj ET");
+            PDPage second = page(document, helvetica(), "BT /F1 12 Tf (Welt) Tj ET");
+
+            ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+            deduplicator.deduplicate(first);
+            deduplicator.deduplicate(second);
+
+            assertSame(font(first), font(second));
+            assertNotSame(contents(first), contents(second));
+            assertEquals(1, deduplicator.getReplaced());
+        }
+    }
+
+    @Test
+    void ignoresBackReferencesToThePageTree() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage first = page(document, helvetica(), "q Q");
+            PDPage second = page(document, helvetica(), "q Q");
+            ((COSDictionary) font(first)).setItem(COSName.P, first.getCOSObject());
+            ((COSDictionary) font(second)).setItem(COSName.P, second.getCOSObject());
+
+            ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+            deduplicator.deduplicate(first);
+            deduplicator.deduplicate(second);
+
+            assertSame(font(first), font(second));
+        }
+    }
+
+    @Test
+    void keepsSelfReferencingObjects() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            COSDictionary firstFont = helvetica();
+            firstFont.setItem(COSName.getPDFName("Self"), firstFont);
+            COSDictionary secondFont = helvetica();
+            secondFont.setItem(COSName.getPDFName("Self"), secondFont);
+            PDPage first = page(document, firstFont, "q Q");
+            PDPage second = page(document, secondFont, "q Q");
+
+            ResourceDeduplicator deduplicator = new ResourceDeduplicator();
+            deduplicator.deduplicate(first);
+            deduplicator.deduplicate(second);
+
+            assertSame(firstFont, font(first));
+            assertSame(secondFont, font(second));
+        }
+    }
+
+    private static PDPage page(PDDocument document, COSDictionary font, String content) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+
+        COSDictionary fonts = new COSDictionary();
+        fonts.setItem(F1, font);
+        PDResources resources = new PDResources();
+        resources.getCOSObject().setItem(COSName.FONT, fonts);
+        page.setResources(resources);
+
+        COSStream stream = document.getDocument().createCOSStream();
+        try (OutputStream out = stream.createOutputStream()) {
+            out.write(content.getBytes(StandardCharsets.US_ASCII));
+        }
+        page.getCOSObject().setItem(COSName.CONTENTS, stream);
+        return page;
+    }
+
+    private static COSDictionary helvetica() {
+        COSDictionary font = new COSDictionary();
+        font.setItem(COSName.TYPE, COSName.FONT);
+        font.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        font.setName(COSName.BASE_FONT, "Helvetica");
+        return font;
+    }
+
+    private static COSBase font(PDPage page) {
+        return page.getCOSObject().getCOSDictionary(COSName.RESOURCES).getCOSDictionary(COSName.FONT)
+                .getDictionaryObject(F1);
+    }
+
+    private static COSBase contents(PDPage page) {
+        return page.getCOSObject().getDictionaryObject(COSName.CONTENTS);
+    }
+}
@@ -0,0 +1,63 @@
+package com.wohngeld.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TemplateFieldIndexTest {
+
+    @Test
+    void oneKeyFillsAllEncodingVariantsOfAField() {
+        FieldLayout layout = new FieldLayout(List.of("Straße", "Vorname"));
+        TemplateFieldIndex index = TemplateFieldIndex.of(List.of("Straße", "Strasse", "Vorname"), layout);
+
+        FillPlan plan = layout.newPlan();
+        plan.put("Straße", "Musterstraße");
+        plan.put("Vorname", "Max");
+
+        assertEquals("Musterstraße", index.valueFor(0, plan));
+        assertEquals("Musterstraße", index.valueFor(1, plan));
+        assertEquals("Max", index.valueFor(2, plan));
+        assertEquals(List.of(), index.getUnresolvedKeys());
+    }
+
+    @Test
+    void directMatchWinsOverNormalizedMatch() {
+        FieldLayout layout = new FieldLayout(List.of("Straße", "Strasse"));
+        TemplateFieldIndex index = TemplateFieldIndex.of(List.of("Strasse", "Straße"), layout);
+
+        FillPlan plan = layout.newPlan();
+        plan.put("Straße", "mit ß");
+        plan.put("Strasse", "mit ss");
+
+        assertEquals("mit ss", index.valueFor(0, plan));
+        assertEquals("mit ß", index.valueFor(1, plan));
+    }
+
+    @Test
+    void normalizedMatchTakesFirstKeyWithValueInMappingOrder() {
+        FieldLayout layout = new FieldLayout(List.of("Straße", "Strasse", "Stra-sse"));
+        TemplateFieldIndex index = TemplateFieldIndex.of(List.of("Straße "), layout);
+
+        FillPlan plan = layout.newPlan();
+        assertNull(index.valueFor(0, plan));
+
+        plan.put("Strasse", "zweiter Schlüssel");
+        assertEquals("zweiter Schlüssel", index.valueFor(0, plan));
+
+        plan.put("Straße", "erster Schlüssel");
+        assertEquals("erster Schlüssel", index.valueFor(0, plan));
+    }
+
+    @Test
+    void keysWithoutFieldAreReportedAsUnresolved() {
+        FieldLayout layout = new FieldLayout(List.of("Vorname", "Wohnfläche"));
+        TemplateFieldIndex index = TemplateFieldIndex.of(List.of("Vorname", "Sonstiges"), layout);
+
+        assertEquals(List.of("Wohnfläche"), index.getUnresolvedKeys());
+        assertNull(index.valueFor(1, layout.newPlan()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.wohngeld.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordAutomatonTest {
+
+    private static final List<String> KEYWORDS = List.of("ort", "wohnort", "nr", "nr.", "str.", "straße",
+            "miete", "kaltmiete", "ja", "a", "€", "geb.datum");
+
+    private final KeywordAutomaton automaton = KeywordAutomaton.of(KEYWORDS);
+
+    @Test
+    void findsOverlappingAndNestedKeywords() {
+        KeywordAutomaton.Matches matches = automaton.match("wohnort / kaltmiete");
+
+        assertTrue(matches.containsAny("ort"));
+        assertTrue(matches.containsAny("wohnort"));
+        assertTrue(matches.containsAny("miete"));
+        assertTrue(matches.containsAny("kaltmiete"));
+        assertTrue(matches.containsAny("a"));
+        assertFalse(matches.containsAny("nr", "ja"));
+    }
+
+    @Test
+    void matchesPunctuationAndNonLatin1Characters() {
+        assertTrue(automaton.match("haus-nr.").containsAny("nr."));
+        assertFalse(automaton.match("haus-nr").containsAny("nr."));
+        assertTrue(automaton.match("betrag in €").containsAny("€"));
+        assertTrue(automaton.match("straße").containsAny("straße"));
+        assertFalse(automaton.match("strasse").containsAny("straße", "str."));
+    }
+
+    @Test
+    void keywordsAreCaseInsensitiveLikeTheLinearScan() {
+        KeywordAutomaton mixed = KeywordAutomaton.of(List.of("IBAN", "iban", "Bic"));
+
+        assertEquals(2, mixed.size());
+        assertTrue(mixed.match("abschnitt iban").containsAny("IBAN"));
+        assertTrue(mixed.match("bic").containsAny("Bic"));
+        assertTrue(KeywordAutomaton.scan("bic").containsAny("Bic"));
+    }
+
+    @Test
+    void unknownKeywordIsRejected() {
+        KeywordAutomaton.Matches matches = automaton.match("wohnort");
+
+        assertThrows(IllegalArgumentException.class, () -> matches.containsAny("plz"));
+    }
+
+    @Test
+    void agreesWithLinearScanOnRandomText() {
+        Random random = new Random(42);
+        String alphabet = "abcdeijklmnorstw.ß€- ";
+        for (int n = 0; n < 5_000; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            KeywordAutomaton.Matches expected = KeywordAutomaton.scan(text.toString());
+            KeywordAutomaton.Matches actual = automaton.match(text.toString());
+            for (String keyword : KEYWORDS) {
+                assertEquals(expected.containsAny(keyword), actual.containsAny(keyword), keyword + " in " + text);
+            }
+        }
+    }
+}